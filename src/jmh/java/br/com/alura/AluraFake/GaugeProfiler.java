@@ -0,0 +1,51 @@
+package br.com.alura.AluraFake;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports side measurements a benchmark {@link #record}s (a latency percentile, round trips, response
+ * sizes) as secondary results, averaged over the measurement iterations, so they reach the JSON result
+ * file and can be diffed between commits like the scores. Enabled for every run of the jmh profile;
+ * each benchmark runs in its own fork, so values never leak between benchmarks.
+ */
+public class GaugeProfiler implements InternalProfiler {
+
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    public static void record(String name, double value, String unit) {
+        GAUGES.put(name, new Gauge(value, unit));
+    }
+
+    @Override
+    public String getDescription() {
+        return "Side measurements recorded by the benchmark";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        List<Result> results = new ArrayList<>(GAUGES.size());
+        GAUGES.forEach((name, gauge) -> results.add(new ScalarResult(name, gauge.value(), gauge.unit(),
+                AggregationPolicy.AVG)));
+        return results;
+    }
+
+    private record Gauge(double value, String unit) {
+    }
+}
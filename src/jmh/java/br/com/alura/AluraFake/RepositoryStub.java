@@ -0,0 +1,30 @@
+package br.com.alura.AluraFake;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-in for a Spring Data repository in benchmarks. Abstract methods are answered by name
+ * from the given map, default methods run as written and anything else fails, so a benchmark cannot
+ * silently measure a query it did not stub.
+ */
+public final class RepositoryStub {
+
+    private RepositoryStub() {}
+
+    public static <T> T of(Class<T> repository, Map<String, Function<Object[], Object>> answers) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(repository.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        };
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, handler));
+    }
+}
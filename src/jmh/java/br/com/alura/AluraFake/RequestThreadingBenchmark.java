@@ -0,0 +1,169 @@
+package br.com.alura.AluraFake;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Bursts of {@value #REQUESTS} concurrent HTTP requests against the application started on a random
+ * port with {@code spring.threads.virtual.enabled} off (Tomcat's pool of platform threads) and on (one
+ * virtual thread per request), and a Hikari pool of {@code connections}:
+ * <ul>
+ *     <li>task creation: {@code POST /task/new/opentext}, request {@code i} appending to the {@code i}-th
+ *     seeded course, so concurrent requests never race for the same order key;</li>
+ *     <li>instructor report: {@code GET /instructor/{id}/courses} over {@value #INSTRUCTORS} seeded
+ *     instructors, with the report cache turned off so every request runs the lookup and the query.</li>
+ * </ul>
+ * One operation is one burst, so requests per second are {@value #REQUESTS} divided by the score; a
+ * response other than 200 or 201 fails the run. The p99 of request latency over each iteration,
+ * measured from submission, is reported as the {@code latency.p99} secondary result through
+ * {@link GaugeProfiler}. Requires the MySQL database configured in application-test.properties.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=RequestThreadingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    static final int REQUESTS = 1000;
+    static final int INSTRUCTORS = 100;
+
+    public enum Threading { PLATFORM, VIRTUAL }
+
+    public enum Endpoint { TASK_CREATION, INSTRUCTOR_REPORT }
+
+    @Param
+    public Threading threading;
+
+    @Param
+    public Endpoint endpoint;
+
+    @Param({"10", "100"})
+    public int connections;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private HttpClient client;
+    private String baseUrl;
+    private String seed;
+    private List<Long> instructorIds;
+    private List<Long> courseIds;
+    private int appended;
+    private long[] latencies;
+    private int recorded;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--spring.jpa.show-sql=false",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + (threading == Threading.VIRTUAL),
+                        "--spring.datasource.hikari.maximum-pool-size=" + connections,
+                        "--alurafake.instructor-report.cache.max-size=0");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        seed = "bench-" + System.nanoTime();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO User (name, email, role, password) VALUES (?, ?, 'INSTRUCTOR', '123456')",
+                IntStream.range(0, INSTRUCTORS)
+                        .mapToObj(i -> new Object[]{"Instrutor " + i, seed + "-" + i + "@alura.com.br"})
+                        .toList());
+        instructorIds = jdbcTemplate.queryForList(
+                "SELECT id FROM User WHERE email LIKE ? ORDER BY id", Long.class, seed + "-%");
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO Course (title, description, instructor_id) VALUES (?, ?, ?)",
+                IntStream.range(0, REQUESTS)
+                        .mapToObj(i -> new Object[]{"Curso " + i, "Request threading benchmark",
+                                instructorIds.get(i % INSTRUCTORS)})
+                        .toList());
+        courseIds = jdbcTemplate.queryForList(
+                "SELECT c.id FROM Course c JOIN User u ON u.id = c.instructor_id WHERE u.email LIKE ? ORDER BY c.id",
+                Long.class, seed + "-%");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        client.close();
+        jdbcTemplate.update("DELETE FROM User WHERE email LIKE ?", seed + "-%");
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLatencies() {
+        latencies = new long[REQUESTS * 64];
+        recorded = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void recordPercentile() {
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        GaugeProfiler.record("latency.p99", sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6, "ms");
+    }
+
+    @Benchmark
+    public void burst() {
+        long[] burst = new long[REQUESTS];
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<?>> responses = new ArrayList<>(REQUESTS);
+        int order = ++appended;
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            responses.add(client.sendAsync(request(request, order), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        burst[request] = System.nanoTime() - submitted;
+                        if (error != null || response.statusCode() / 100 != 2) {
+                            failed.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        if (failed.get() > 0) {
+            throw new IllegalStateException(failed.get() + " of " + REQUESTS + " requests failed");
+        }
+        record(burst);
+    }
+
+    private HttpRequest request(int request, int order) {
+        if (endpoint == Endpoint.INSTRUCTOR_REPORT) {
+            return HttpRequest.newBuilder(URI.create(
+                    baseUrl + "/instructor/" + instructorIds.get(request % INSTRUCTORS) + "/courses")).GET().build();
+        }
+        String body = String.format("{\"courseId\":%d,\"statement\":\"Atividade %d\",\"order\":%d}",
+                courseIds.get(request), order, order);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/task/new/opentext"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void record(long[] burst) {
+        if (recorded + burst.length > latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        System.arraycopy(burst, 0, latencies, recorded, burst.length);
+        recorded += burst.length;
+    }
+}
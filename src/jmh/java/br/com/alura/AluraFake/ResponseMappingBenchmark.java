@@ -0,0 +1,118 @@
+package br.com.alura.AluraFake;
+
+import br.com.alura.AluraFake.course.*;
+import br.com.alura.AluraFake.course.dto.CourseListItemDTO;
+import br.com.alura.AluraFake.course.dto.CourseResponse;
+import br.com.alura.AluraFake.course.dto.InstructorSummary;
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import br.com.alura.AluraFake.task.dto.response.TaskResponse;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserLookupCache;
+import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
+import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO mapping and JSON serialization behind the course, task and report endpoints:
+ * {@link CourseService#toCourseResponse}, one choice {@link TaskResponse}, a page of
+ * {@value #PAGE_SIZE} {@link CourseListItemDTO} and an {@link InstructorCoursesReportResponse} of
+ * {@value #REPORT_COURSES} courses. The mapper is configured like Spring Boot's. Compare
+ * gc.alloc.rate.norm for bytes/op.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=ResponseMappingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    static final int PAGE_SIZE = 50;
+    static final int REPORT_COURSES = 40;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private CourseService courseService;
+    private Course course;
+    private InstructorSummary instructor;
+    private TaskResponse taskResponse;
+    private List<CourseListItemDTO> coursePage;
+    private InstructorCoursesReportResponse report;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = RepositoryStub.of(UserRepository.class, Map.of());
+        CourseRepository courseRepository = RepositoryStub.of(CourseRepository.class, Map.of());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        courseService = new CourseService(courseRepository, new UserLookupCache(userRepository, meterRegistry, 16),
+                new CourseAuthoringStateCache(courseRepository, meterRegistry, 1024), event -> { });
+
+        LocalDateTime now = LocalDateTime.now();
+        User paulo = new User("Paulo Silveira", "paulo@alura.com.br", Role.INSTRUCTOR);
+        instructor = new InstructorSummary(7L, paulo.getName(), paulo.getEmail());
+        course = new Course("Java Avançado", "Curso de Java Avançado", paulo);
+        ReflectionTestUtils.setField(course, "id", 42L);
+        course.setStatus(Status.PUBLISHED);
+        course.setPublishedAt(now);
+
+        taskResponse = new TaskResponse(10L, 42L, "Quais são frameworks Java?", 3, Type.MULTIPLE_CHOICE, now, List.of(
+                new OptionResponse("Spring Framework", true),
+                new OptionResponse("Hibernate ORM", true),
+                new OptionResponse("Jakarta Persistence", true),
+                new OptionResponse("Django", false),
+                new OptionResponse("Ruby on Rails", false)));
+
+        coursePage = new ArrayList<>(PAGE_SIZE);
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            coursePage.add(new CourseListItemDTO((long) i, "Curso " + i, "Descrição do curso " + i,
+                    i % 2 == 0 ? Status.PUBLISHED : Status.BUILDING, i % 2 == 0 ? now : null));
+        }
+
+        List<InstructorCourseDTO> courses = new ArrayList<>(REPORT_COURSES);
+        for (int i = 1; i <= REPORT_COURSES; i++) {
+            courses.add(new InstructorCourseDTO((long) i, "Curso " + i,
+                    i % 2 == 0 ? Status.PUBLISHED : Status.BUILDING, i % 2 == 0 ? now : null, (long) i % 7));
+        }
+        report = new InstructorCoursesReportResponse(courses, (long) REPORT_COURSES / 2);
+    }
+
+    @Benchmark
+    public CourseResponse toCourseResponse() {
+        return courseService.toCourseResponse(course, instructor);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeCourseListPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(coursePage);
+    }
+
+    @Benchmark
+    public byte[] serializeInstructorReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(report);
+    }
+}
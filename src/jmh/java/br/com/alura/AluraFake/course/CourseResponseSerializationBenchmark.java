@@ -0,0 +1,68 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.GaugeProfiler;
+import br.com.alura.AluraFake.course.dto.CourseResponse;
+import br.com.alura.AluraFake.course.dto.InstructorSummary;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of one create/publish response: the former shape embedding the {@link User} entity
+ * against the {@link InstructorSummary}. The size of the measured response is reported as the
+ * {@code response.bytes} secondary result through {@link GaugeProfiler}.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=CourseResponseSerializationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseResponseSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private EntityCourseResponse entityResponse;
+    private CourseResponse summaryResponse;
+
+    @Setup
+    public void setUp(BenchmarkParams params) throws JsonProcessingException {
+        User instructor = new User("Paulo Silveira", "paulo@alura.com.br", Role.INSTRUCTOR);
+        LocalDateTime now = LocalDateTime.now();
+        entityResponse = new EntityCourseResponse(42L, "Java Avançado", "Curso de Java Avançado",
+                instructor, Status.PUBLISHED, now, now);
+        summaryResponse = new CourseResponse(42L, "Java Avançado", "Curso de Java Avançado",
+                new InstructorSummary(7L, instructor.getName(), instructor.getEmail()), Status.PUBLISHED, now, now);
+
+        Object measured = params.getBenchmark().endsWith(".userEntity") ? entityResponse : summaryResponse;
+        GaugeProfiler.record("response.bytes", objectMapper.writeValueAsBytes(measured).length, "bytes");
+    }
+
+    @Benchmark
+    public byte[] userEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityResponse);
+    }
+
+    @Benchmark
+    public byte[] instructorSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryResponse);
+    }
+
+    /** CourseResponse as it was before the instructor summary. */
+    public record EntityCourseResponse(Long id, String title, String description, User instructor,
+                                       Status status, LocalDateTime createdAt, LocalDateTime publishedAt) {
+    }
+}
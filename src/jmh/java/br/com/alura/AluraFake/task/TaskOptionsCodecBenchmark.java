@@ -0,0 +1,42 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options handling of one choice-task creation: reading back what was just packed
+ * against packing once and mapping the in-memory list. Compare gc.alloc.rate.norm for bytes/op.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=TaskOptionsCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskOptionsCodecBenchmark {
+
+    private final List<OptionRequest> options = List.of(
+            new OptionRequest("Spring Framework", true),
+            new OptionRequest("Hibernate ORM", true),
+            new OptionRequest("Jakarta Persistence", true),
+            new OptionRequest("Django", false),
+            new OptionRequest("Ruby on Rails", false));
+
+    @Benchmark
+    public List<OptionResponse> packThenUnpack() {
+        return TaskOptionsCodec.unpack(TaskOptionsCodec.pack(options));
+    }
+
+    @Benchmark
+    public List<OptionResponse> packThenMap(Blackhole blackhole) {
+        blackhole.consume(TaskOptionsCodec.pack(options));
+        return TaskOptionsCodec.toResponses(options);
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Option validation of one choice task for valid and invalid payloads. The invalid payloads fail on the
+ * last rule checked (correct count) and on uniqueness, so the whole list is walked before the error.
+ * Compare gc.alloc.rate.norm for bytes/op.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=TaskOptionsValidatorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskOptionsValidatorBenchmark {
+
+    private static final String STATEMENT = "Quais são frameworks Java?";
+
+    private final List<OptionRequest> validSingleChoice = List.of(
+            new OptionRequest("Spring Framework", true),
+            new OptionRequest("Django", false),
+            new OptionRequest("Ruby on Rails", false),
+            new OptionRequest("Laravel", false),
+            new OptionRequest("Express", false));
+
+    private final List<OptionRequest> validMultipleChoice = List.of(
+            new OptionRequest("Spring Framework", true),
+            new OptionRequest("Hibernate ORM", true),
+            new OptionRequest("Jakarta Persistence", true),
+            new OptionRequest("Django", false),
+            new OptionRequest("Ruby on Rails", false));
+
+    private final List<OptionRequest> missingIncorrect = List.of(
+            new OptionRequest("Spring Framework", true),
+            new OptionRequest("Hibernate ORM", true),
+            new OptionRequest("Jakarta Persistence", true),
+            new OptionRequest("Micronaut", true),
+            new OptionRequest("Quarkus", true));
+
+    private final List<OptionRequest> duplicated = List.of(
+            new OptionRequest("Spring Framework", true),
+            new OptionRequest("Hibernate ORM", true),
+            new OptionRequest("Jakarta Persistence", true),
+            new OptionRequest("Django", false),
+            new OptionRequest("Spring Framework", false));
+
+    @Benchmark
+    public void validSingleChoice() {
+        TaskOptionsValidator.validate(Type.SINGLE_CHOICE, validSingleChoice, STATEMENT);
+    }
+
+    @Benchmark
+    public void validMultipleChoice() {
+        TaskOptionsValidator.validate(Type.MULTIPLE_CHOICE, validMultipleChoice, STATEMENT);
+    }
+
+    @Benchmark
+    public String invalidCorrectCount() {
+        return rejectionReason(Type.MULTIPLE_CHOICE, missingIncorrect);
+    }
+
+    @Benchmark
+    public String invalidDuplicated() {
+        return rejectionReason(Type.MULTIPLE_CHOICE, duplicated);
+    }
+
+    private static String rejectionReason(Type type, List<OptionRequest> options) {
+        try {
+            TaskOptionsValidator.validate(type, options, STATEMENT);
+            return null;
+        } catch (ResponseStatusException e) {
+            return e.getReason();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of inserting a task at the head of a course whose order keys have no gap left.
+ * ROW_BY_ROW mirrors the former load-modify-saveAll shift, SET_BASED uses
+ * {@link TaskRepository#shiftOrderKeysFrom}. Every invocation is rolled back.
+ * Requires the MySQL database configured in application-test.properties.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=TaskOrderShiftBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskOrderShiftBenchmark {
+
+    public enum Path { ROW_BY_ROW, SET_BASED }
+
+    @Param({"10", "100", "1000", "10000"})
+    private int courseSize;
+
+    @Param({"ROW_BY_ROW", "SET_BASED"})
+    private Path path;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TaskRepository taskRepository;
+    private long userId;
+    private long courseId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test", "--spring.jpa.show-sql=false");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        taskRepository = context.getBean(TaskRepository.class);
+
+        userId = insert("INSERT INTO User (name, email, role, password) VALUES (?, ?, 'INSTRUCTOR', '123456')",
+                "Bench", "bench-" + System.nanoTime() + "@alura.com.br");
+        courseId = insert("INSERT INTO Course (title, description, instructor_id) VALUES (?, ?, ?)",
+                "Benchmark", "Order shift benchmark", userId);
+
+        // Adjacent keys force a shift on every head insertion
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO Task (course_id, statement, orderKey, type) VALUES (?, ?, ?, 'OPEN_TEXT')",
+                IntStream.rangeClosed(1, courseSize)
+                        .mapToObj(i -> new Object[]{courseId, "Statement " + i, (long) i})
+                        .toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM User WHERE id = ?", userId);
+        context.close();
+    }
+
+    @Benchmark
+    public void insertAtHead() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (path == Path.ROW_BY_ROW) {
+                shiftRowByRow(1L, TaskService.ORDER_KEY_GAP);
+            } else {
+                taskRepository.shiftOrderKeysFrom(courseId, 1L, TaskService.ORDER_KEY_GAP);
+            }
+            jdbcTemplate.update("INSERT INTO Task (course_id, statement, orderKey, type) VALUES (?, ?, ?, 'OPEN_TEXT')",
+                    courseId, "Inserted at head", 1L);
+            status.setRollbackOnly();
+        });
+    }
+
+    private void shiftRowByRow(long fromKey, long delta) {
+        List<long[]> rows = jdbcTemplate.query(
+                "SELECT id, orderKey FROM Task WHERE course_id = ? AND orderKey >= ? ORDER BY orderKey DESC",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, courseId, fromKey);
+        for (long[] row : rows) {
+            jdbcTemplate.update("UPDATE Task SET orderKey = ? WHERE id = ?", row[1] + delta, row[0]);
+        }
+    }
+
+    private long insert(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.GaugeProfiler;
+import br.com.alura.AluraFake.RepositoryStub;
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringState;
+import br.com.alura.AluraFake.course.CourseAuthoringStateCache;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
+import br.com.alura.AluraFake.course.Status;
+import br.com.alura.AluraFake.task.dto.request.MultipleChoiceTaskRequest;
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import br.com.alura.AluraFake.task.dto.request.SingleChoiceTaskRequest;
+import br.com.alura.AluraFake.task.dto.response.TaskPageResponse;
+import br.com.alura.AluraFake.task.dto.response.TaskResponse;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskService} hot paths over in-memory repository stubs, so only validation, option packing
+ * and DTO mapping are measured: creating a choice task, validating its options, and listing a page of
+ * {@value #PAGE_SIZE} tasks with packed options. Compare gc.alloc.rate.norm for bytes/op.
+ * <p>
+ * Every created task gets a new statement, in a course that already holds {@value #STORED_STATEMENTS} statements,
+ * so creation takes the path where {@link TaskStatementIndex} answers without the database and the
+ * filter never fills up within an iteration. The share of lookups answered that way is reported as the
+ * {@code statementIndex.skipped} secondary result through {@link GaugeProfiler}.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=TaskServiceBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    static final long COURSE_ID = 1L;
+    static final int PAGE_SIZE = 50;
+    static final int STORED_STATEMENTS = 1 << 19;
+
+    private final List<OptionRequest> options = List.of(
+            new OptionRequest("Spring Framework", true),
+            new OptionRequest("Hibernate ORM", true),
+            new OptionRequest("Jakarta Persistence", true),
+            new OptionRequest("Django", false),
+            new OptionRequest("Ruby on Rails", false));
+
+    private final List<String> storedStatements = new ArrayList<>(STORED_STATEMENTS);
+    private SimpleMeterRegistry meterRegistry;
+    private TaskService tasks;
+    private long sequence;
+    private SingleChoiceTaskRequest singleChoice;
+    private MultipleChoiceTaskRequest multipleChoice;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < STORED_STATEMENTS; i++) {
+            storedStatements.add("Pergunta cadastrada " + i);
+        }
+
+        singleChoice = new SingleChoiceTaskRequest();
+        singleChoice.setCourseId(COURSE_ID);
+        singleChoice.setStatement("Qual é o framework da Alura?");
+        singleChoice.setOrder(1);
+        singleChoice.setOptions(List.of(
+                new OptionRequest("Spring Framework", true),
+                new OptionRequest("Django", false),
+                new OptionRequest("Ruby on Rails", false)));
+
+        multipleChoice = new MultipleChoiceTaskRequest();
+        multipleChoice.setCourseId(COURSE_ID);
+        multipleChoice.setStatement("Quais são frameworks Java?");
+        multipleChoice.setOrder(1);
+        multipleChoice.setOptions(options);
+    }
+
+    @Setup(Level.Iteration)
+    public void createService() {
+        meterRegistry = new SimpleMeterRegistry();
+        tasks = taskService(summaries());
+        createSingleChoiceTask();
+    }
+
+    @TearDown(Level.Iteration)
+    public void recordSkippedLookups() {
+        double skipped = meterRegistry.counter("task.statement.index", "result", "skipped").count();
+        double lookups = skipped
+                + meterRegistry.counter("task.statement.index", "result", "duplicate").count()
+                + meterRegistry.counter("task.statement.index", "result", "false_positive").count();
+        GaugeProfiler.record("statementIndex.skipped", skipped / lookups, "ratio");
+    }
+
+    @Benchmark
+    public TaskResponse createSingleChoiceTask() {
+        singleChoice.setStatement("Qual é o framework da Alura? #" + ++sequence);
+        return tasks.createSingleChoiceTask(singleChoice);
+    }
+
+    @Benchmark
+    public TaskResponse createMultipleChoiceTask() {
+        multipleChoice.setStatement("Quais são frameworks Java? #" + ++sequence);
+        return tasks.createMultipleChoiceTask(multipleChoice);
+    }
+
+    @Benchmark
+    public byte[] validateOptions() {
+        return tasks.validateOptionsForType(Type.MULTIPLE_CHOICE, options, multipleChoice.getStatement());
+    }
+
+    @Benchmark
+    public TaskPageResponse listPackedTasks() {
+        return tasks.listTasks(COURSE_ID, null, PAGE_SIZE);
+    }
+
+    private TaskService taskService(List<TaskSummary> page) {
+        Course course = new Course("Java Avançado", "Curso de Java Avançado",
+                new User("Paulo Silveira", "paulo@alura.com.br", Role.INSTRUCTOR));
+        ReflectionTestUtils.setField(course, "id", COURSE_ID);
+
+        CourseRepository courseRepository = RepositoryStub.of(CourseRepository.class, Map.of(
+                "getReferenceById", args -> course,
+                "findStatusById", args -> Optional.of(Status.BUILDING),
+                "findAuthoringState", args -> Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0))));
+        TaskRepository taskRepository = RepositoryStub.of(TaskRepository.class, Map.of(
+                "findStatementsByCourse", args -> storedStatements,
+                "existsByCourseAndStatement", args -> false,
+                "findOrderKeysFromOffset", args -> List.of(),
+                "save", args -> args[0],
+                "flush", args -> null,
+                "findSummariesByCourseIdAfterOrderKey", args -> page));
+        CourseStatsRepository courseStatsRepository = RepositoryStub.of(CourseStatsRepository.class, Map.of(
+                "addTasks", args -> 1));
+
+        return new TaskService(courseRepository, taskRepository,
+                new TaskStatementIndex(taskRepository, meterRegistry, 2L * STORED_STATEMENTS),
+                new CourseAuthoringStateCache(courseRepository, meterRegistry, 1024),
+                courseStatsRepository, event -> { });
+    }
+
+    private List<TaskSummary> summaries() {
+        byte[] packedOptions = TaskOptionsCodec.pack(options);
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<TaskSummary> summaries = new ArrayList<>(PAGE_SIZE);
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            summaries.add(new TaskSummary((long) i, "Pergunta " + i, i * TaskService.ORDER_KEY_GAP, Type.MULTIPLE_CHOICE,
+                    createdAt, packedOptions, TaskOptionsCodec.PACKED_VERSION));
+        }
+        return summaries;
+    }
+}
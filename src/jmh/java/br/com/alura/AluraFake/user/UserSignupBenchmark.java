@@ -0,0 +1,167 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.GaugeProfiler;
+import br.com.alura.AluraFake.user.dto.NewUserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A storm of {@value #REQUESTS} concurrent signups over {@value #DISTINCT_EMAILS} distinct emails, one
+ * virtual thread per request, against a repository stub that holds a connection from a pool of
+ * {@value #POOL_SIZE} for {@value #ROUND_TRIP_MICROS} us per statement and enforces {@code UC_Email}.
+ * This is a model of the service layer under a storm, not a load test of {@code /user/new}: the
+ * database is a semaphore and a park. Compares the former check-then-insert against
+ * {@link UserService#register}, whose email index makes repeats of an email wait for the insert in
+ * flight instead of sending their own; one operation is one storm, so signups per second are
+ * {@value #REQUESTS} divided by the score. Database round trips per storm are reported as the
+ * {@code roundTrips} secondary result through {@link GaugeProfiler}.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=UserSignupBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSignupBenchmark {
+
+    static final int REQUESTS = 1000;
+    static final int DISTINCT_EMAILS = 200;
+    static final int POOL_SIZE = 10;
+    static final int ROUND_TRIP_MICROS = 200;
+
+    private final List<NewUserDTO> requests = new ArrayList<>(REQUESTS);
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private int storms;
+    private SimulatedDatabase database;
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void createRequests() {
+        for (int i = 0; i < REQUESTS; i++) {
+            NewUserDTO newUser = new NewUserDTO();
+            newUser.setName("Aluno " + i);
+            newUser.setEmail("aluno" + (i % DISTINCT_EMAILS) + "@alura.com.br");
+            newUser.setRole(Role.STUDENT);
+            requests.add(newUser);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetRoundTrips() {
+        roundTrips.set(0);
+        storms = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void recordRoundTrips() {
+        GaugeProfiler.record("roundTrips", (double) roundTrips.get() / storms, "#/storm");
+    }
+
+    @Setup(Level.Invocation)
+    public void resetDatabase() {
+        database = new SimulatedDatabase(roundTrips);
+        userRepository = database.repository();
+        userService = new UserService(userRepository, new UserEmailIndex(new SimpleMeterRegistry(), 100_000),
+                new UserLookupCache(userRepository, new SimpleMeterRegistry(), 1024));
+    }
+
+    @Benchmark
+    public int checkThenInsert() throws InterruptedException {
+        return storm(newUser -> {
+            if (userRepository.existsByEmail(newUser.getEmail())) {
+                return false;
+            }
+            userRepository.save(newUser.toModel());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public int insertFirst() throws InterruptedException {
+        return storm(newUser -> userService.register(newUser).isPresent());
+    }
+
+    private int storm(Signup signup) throws InterruptedException {
+        storms++;
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (NewUserDTO newUser : requests) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        if (signup.attempt(newUser)) {
+                            created.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (DataIntegrityViolationException e) {
+                        // surfaced as a 500 by the check-then-insert controller
+                    }
+                });
+            }
+            start.countDown();
+        }
+        return created.get();
+    }
+
+    @FunctionalInterface
+    private interface Signup {
+        boolean attempt(NewUserDTO newUser) throws InterruptedException;
+    }
+
+    private static final class SimulatedDatabase {
+
+        private final Semaphore connections = new Semaphore(POOL_SIZE);
+        private final Set<String> emails = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger roundTrips;
+
+        SimulatedDatabase(AtomicInteger roundTrips) {
+            this.roundTrips = roundTrips;
+        }
+
+        UserRepository repository() {
+            return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                    new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "existsByEmail" -> roundTrip(() -> emails.contains(key((String) args[0])));
+                        case "save" -> roundTrip(() -> {
+                            User user = (User) args[0];
+                            if (!emails.add(key(user.getEmail()))) {
+                                throw new DataIntegrityViolationException(
+                                        "Duplicate entry '" + user.getEmail() + "' for key 'User.UC_Email'");
+                            }
+                            return user;
+                        });
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private <T> T roundTrip(Callable<T> statement) throws Exception {
+            connections.acquire();
+            try {
+                roundTrips.incrementAndGet();
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ROUND_TRIP_MICROS));
+                return statement.call();
+            } finally {
+                connections.release();
+            }
+        }
+
+        private static String key(String email) {
+            return email.toLowerCase(Locale.ROOT);
+        }
+    }
+}
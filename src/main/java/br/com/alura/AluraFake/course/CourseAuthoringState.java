@@ -0,0 +1,32 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+
+/**
+ * What task creation and publishing need to know about a course, in one value.
+ * {@code typeMask} has bit {@code 1 << type.ordinal()} set for every task {@link Type} present.
+ */
+public record CourseAuthoringState(Status status, int maxOrder, long taskCount, int typeMask) {
+
+    static final int ALL_TYPES = (1 << Type.values().length) - 1;
+
+    public static int bit(Type type) {
+        return 1 << type.ordinal();
+    }
+
+    public boolean hasAllTypes() {
+        return typeMask == ALL_TYPES;
+    }
+
+    public boolean isOrderContinuous() {
+        return taskCount > 0 && taskCount == maxOrder;
+    }
+
+    CourseAuthoringState withTask(Type type) {
+        return new CourseAuthoringState(status, maxOrder + 1, taskCount + 1, typeMask | bit(type));
+    }
+
+    CourseAuthoringState withStatus(Status newStatus) {
+        return new CourseAuthoringState(newStatus, maxOrder, taskCount, typeMask);
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * LRU cache of {@link CourseAuthoringState} by course id, loaded with one aggregate query per miss
+ * (or per batch of misses in {@link #getAll})
+ * and updated incrementally after each committed write. Rolled-back writes never reach it. Courses whose
+ * stats the reconciler rebuilt are dropped and reloaded.
+ * A load that overlaps a committed write is returned but not cached, so the cache never keeps
+ * a state older than the last write it has seen. Writes made through another instance are not seen, so
+ * callers that change a course confirm its status against the row and {@link #evict} a stale entry.
+ * <p>
+ * Metrics: {@code course.authoring.cache} counts lookups by {@code result} ({@code hit}, {@code miss})
+ * and {@code course.authoring.cache.size} gauges the entries.
+ */
+@Component
+public class CourseAuthoringStateCache {
+
+    private final CourseRepository courseRepository;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final AtomicLong writes = new AtomicLong();
+    private final Map<Long, CourseAuthoringState> states;
+
+    @Autowired
+    public CourseAuthoringStateCache(CourseRepository courseRepository, MeterRegistry meterRegistry,
+                                     @Value("${alurafake.course-authoring.cache.max-size:1024}") int maxSize) {
+        this.courseRepository = courseRepository;
+        this.maxSize = maxSize;
+        this.states = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CourseAuthoringState> eldest) {
+                return size() > CourseAuthoringStateCache.this.maxSize;
+            }
+        };
+        this.hits = meterRegistry.counter("course.authoring.cache", "result", "hit");
+        this.misses = meterRegistry.counter("course.authoring.cache", "result", "miss");
+        meterRegistry.gaugeMapSize("course.authoring.cache.size", Tags.empty(), states);
+    }
+
+    public Optional<CourseAuthoringState> get(Long courseId) {
+        synchronized (states) {
+            CourseAuthoringState cached = states.get(courseId);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        misses.increment();
+        long stamp = writes.get();
+        Optional<CourseAuthoringState> loaded = courseRepository.findAuthoringState(courseId);
+        loaded.ifPresent(state -> {
+            synchronized (states) {
+                if (writes.get() == stamp) {
+                    states.putIfAbsent(courseId, state);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    public Map<Long, CourseAuthoringState> getAll(Collection<Long> courseIds) {
+        Map<Long, CourseAuthoringState> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (states) {
+            for (Long courseId : courseIds) {
+                CourseAuthoringState cached = states.get(courseId);
+                if (cached != null) {
+                    found.put(courseId, cached);
+                } else {
+                    missing.add(courseId);
+                }
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(missing.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long stamp = writes.get();
+        List<CourseAuthoringStateRow> loaded = courseRepository.findAuthoringStates(missing);
+        synchronized (states) {
+            boolean cacheable = writes.get() == stamp;
+            for (CourseAuthoringStateRow row : loaded) {
+                found.put(row.courseId(), row.state());
+                if (cacheable) {
+                    states.putIfAbsent(row.courseId(), row.state());
+                }
+            }
+        }
+        return found;
+    }
+
+    public void recordTaskAdded(Long courseId, Type type) {
+        afterCommit(courseId, state -> state.withTask(type));
+    }
+
+    public void recordTasksAdded(Long courseId, Collection<Type> types) {
+        afterCommit(courseId, state -> {
+            for (Type type : types) {
+                state = state.withTask(type);
+            }
+            return state;
+        });
+    }
+
+    public void recordStatus(Long courseId, Status status) {
+        afterCommit(courseId, state -> state.withStatus(status));
+    }
+
+    public void evict(Long courseId) {
+        synchronized (states) {
+            writes.incrementAndGet();
+            states.remove(courseId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatsRebuilt(CourseStatsRebuiltEvent event) {
+        synchronized (states) {
+            writes.incrementAndGet();
+            for (Long courseId : event.courseIds()) {
+                states.remove(courseId);
+            }
+        }
+    }
+
+    private void afterCommit(Long courseId, UnaryOperator<CourseAuthoringState> change) {
+        Runnable apply = () -> {
+            synchronized (states) {
+                writes.incrementAndGet();
+                states.computeIfPresent(courseId, (id, state) -> change.apply(state));
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.alura.AluraFake.course;
+
+public record CourseAuthoringStateRow(Long courseId, Status status, int maxOrder, long taskCount, int typeMask) {
+
+    public CourseAuthoringState state() {
+        return new CourseAuthoringState(status, maxOrder, taskCount, typeMask);
+    }
+}
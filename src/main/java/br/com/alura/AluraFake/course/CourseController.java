@@ -1,12 +1,19 @@
 package br.com.alura.AluraFake.course;
 
-import br.com.alura.AluraFake.course.dto.CourseListItemDTO;
+import br.com.alura.AluraFake.course.dto.CoursePageResponse;
+import br.com.alura.AluraFake.course.dto.CoursePublishCheckResponse;
 import br.com.alura.AluraFake.course.dto.CourseResponse;
 import br.com.alura.AluraFake.course.dto.NewCourseDTO;
+import br.com.alura.AluraFake.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 
@@ -14,10 +21,12 @@ import java.util.*;
 public class CourseController {
 
     private final CourseService courseService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, ObjectMapper objectMapper) {
         this.courseService = courseService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/course/new")
@@ -26,9 +35,22 @@ public class CourseController {
         return courseService.createCourse(newCourse);
     }
 
-    @GetMapping("/course/all")
-    public List<CourseListItemDTO> createCourse() {
-        return courseService.getAllCourses();
+    @GetMapping(value = "/course/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listAllCourses() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, courseService::forEachCourse));
+    }
+
+    @GetMapping(value = "/course/all", params = "size")
+    public CoursePageResponse listCourses(@RequestParam(name = "cursor", required = false) String cursor,
+                                          @RequestParam(name = "size") @Min(1) @Max(500) int size) {
+        return courseService.listCourses(cursor, size);
+    }
+
+    @GetMapping("/course/publish/check")
+    public List<CoursePublishCheckResponse> checkPublishable(@RequestParam("ids") @Size(min = 1, max = 500) List<Long> ids) {
+        return courseService.checkPublishable(ids);
     }
 
     @PostMapping("/course/{id}/publish")
@@ -1,11 +1,72 @@
 package br.com.alura.AluraFake.course;
 
+import br.com.alura.AluraFake.course.dto.CourseListItemDTO;
 import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CourseRepository extends JpaRepository<Course, Long>{
 
     List<Course> findByInstructor(User instructor);
+
+    @Query("SELECT new br.com.alura.AluraFake.course.CourseWithInstructor(c, u.id, u.name, u.email) " +
+            "FROM Course c JOIN c.instructor u WHERE c.id = :courseId")
+    Optional<CourseWithInstructor> findWithInstructorById(@Param("courseId") Long courseId);
+
+    @Query("SELECT new br.com.alura.AluraFake.user.dto.InstructorCourseDTO(c.id, c.title, c.status, c.publishedAt, " +
+            "CAST(COALESCE(s.taskCount, 0) AS Long)) " +
+            "FROM Course c LEFT JOIN CourseStats s ON s.courseId = c.id " +
+            "WHERE c.instructor.id = :instructorId ORDER BY c.id")
+    List<InstructorCourseDTO> findInstructorCourses(@Param("instructorId") Long instructorId);
+
+    // The fan-out report fills taskCount from CourseStats in chunks
+    @Query("SELECT new br.com.alura.AluraFake.user.dto.InstructorCourseDTO(c.id, c.title, c.status, c.publishedAt, 0L) " +
+            "FROM Course c WHERE c.instructor.id = :instructorId ORDER BY c.id")
+    List<InstructorCourseDTO> findInstructorCourseList(@Param("instructorId") Long instructorId);
+
+    @Query("SELECT COUNT(c) FROM Course c WHERE c.instructor.id = :instructorId AND c.status = :status")
+    long countByInstructorAndStatus(@Param("instructorId") Long instructorId, @Param("status") Status status);
+
+    // The type mask bits follow CourseAuthoringState.bit: 1 << Type.ordinal()
+    String AUTHORING_STATE_COLUMNS = "c.status, COALESCE(s.maxOrder, 0), CAST(COALESCE(s.taskCount, 0) AS Long), " +
+            "(CASE WHEN s.openTextCount > 0 THEN 1 ELSE 0 END) + " +
+            "(CASE WHEN s.multipleChoiceCount > 0 THEN 2 ELSE 0 END) + " +
+            "(CASE WHEN s.singleChoiceCount > 0 THEN 4 ELSE 0 END)) " +
+            "FROM Course c LEFT JOIN CourseStats s ON s.courseId = c.id ";
+
+    @Query("SELECT new br.com.alura.AluraFake.course.CourseAuthoringState(" + AUTHORING_STATE_COLUMNS +
+            "WHERE c.id = :courseId")
+    Optional<CourseAuthoringState> findAuthoringState(@Param("courseId") Long courseId);
+
+    @Query("SELECT new br.com.alura.AluraFake.course.CourseAuthoringStateRow(c.id, " + AUTHORING_STATE_COLUMNS +
+            "WHERE c.id IN :courseIds")
+    List<CourseAuthoringStateRow> findAuthoringStates(@Param("courseIds") Collection<Long> courseIds);
+
+    @Query("SELECT c.status FROM Course c WHERE c.id = :courseId")
+    Optional<Status> findStatusById(@Param("courseId") Long courseId);
+
+    String LIST_ITEM_PROJECTION = "SELECT new br.com.alura.AluraFake.course.dto.CourseListItemDTO(" +
+            "c.id, c.title, c.description, c.status, c.publishedAt) FROM Course c ";
+
+    @Query(LIST_ITEM_PROJECTION + "WHERE c.id > :afterId ORDER BY c.id")
+    List<CourseListItemDTO> findListItemsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(LIST_ITEM_PROJECTION + "ORDER BY c.id")
+    Stream<CourseListItemDTO> streamListItems();
+
+    @Query("SELECT c.id FROM Course c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
@@ -1,33 +1,45 @@
 package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.course.dto.CourseListItemDTO;
+import br.com.alura.AluraFake.course.dto.CoursePageResponse;
+import br.com.alura.AluraFake.course.dto.CoursePublishCheckResponse;
 import br.com.alura.AluraFake.course.dto.CourseResponse;
+import br.com.alura.AluraFake.course.dto.InstructorSummary;
 import br.com.alura.AluraFake.course.dto.NewCourseDTO;
-import br.com.alura.AluraFake.task.TaskRepository;
 import br.com.alura.AluraFake.user.User;
-import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.user.UserLookupCache;
+import br.com.alura.AluraFake.util.IdCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.function.ThrowingConsumer;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class CourseService {
 
     private final CourseRepository courseRepository;
-    private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookups;
+    private final CourseAuthoringStateCache authoringStates;
+    private final ApplicationEventPublisher events;
 
     @Autowired
-    public CourseService(CourseRepository courseRepository, TaskRepository taskRepository, UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CourseService(CourseRepository courseRepository, UserLookupCache userLookups,
+                         CourseAuthoringStateCache authoringStates, ApplicationEventPublisher events) {
+        this.userLookups = userLookups;
         this.courseRepository = courseRepository;
-        this.taskRepository = taskRepository;
+        this.authoringStates = authoringStates;
+        this.events = events;
     }
 
     @Transactional
@@ -35,58 +47,73 @@ public class CourseService {
         User instructor = validateInstructor(newCourseDTO.getEmailInstructor());
         Course course = new Course(newCourseDTO.getTitle(), newCourseDTO.getDescription(), instructor);
         course = courseRepository.save(course);
-        return toCourseResponse(course);
+        events.publishEvent(new CourseCreatedEvent(course.getId(), instructor.getId()));
+        return toCourseResponse(course, InstructorSummary.of(instructor));
     }
 
     @Transactional
     public CourseResponse publishCourse(Long courseId) {
-        Course course = validatePublishCourseRequest(courseId);
+        CourseWithInstructor found = validatePublishCourseRequest(courseId);
+        Course course = found.course();
         course.setStatus(Status.PUBLISHED);
         course.setPublishedAt(LocalDateTime.now());
         Course response = courseRepository.save(course);
-        return toCourseResponse(response);
+        authoringStates.recordStatus(courseId, Status.PUBLISHED);
+        events.publishEvent(new CoursePublishedEvent(courseId));
+        return toCourseResponse(response, found.instructor());
     }
 
-    private Course validatePublishCourseRequest(Long courseId) {
-        Course course = courseRepository.findById(courseId)
+    private CourseWithInstructor validatePublishCourseRequest(Long courseId) {
+        CourseAuthoringState state = authoringStates.get(courseId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Course not found"));
 
-        if (course.getStatus() != Status.BUILDING) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Course is not in BUILDING status. Current status: " + course.getStatus());
+        String blocker = publishBlocker(state);
+        if (blocker != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, blocker);
         }
+        CourseWithInstructor found = courseRepository.findWithInstructorById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Course not found"));
 
-        Long distinctTypes = taskRepository.countDistinctTypeByCourse(course);
-        if (distinctTypes < 3) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Course must have at least one activity of each type (Open Text, Single Choice, Multiple Choice)");
+        // the cached state may miss a publish made through another instance
+        Status status = found.course().getStatus();
+        if (status != Status.BUILDING) {
+            authoringStates.evict(courseId);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Course is not in BUILDING status. Current status: " + status);
         }
+        return found;
+    }
 
-        boolean isContinuous = isOrderSequenceContinuous(course);
-        if (!isContinuous) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Activity orders are not continuous (e.g., 1, 2, 3...)");
+    public List<CoursePublishCheckResponse> checkPublishable(List<Long> courseIds) {
+        Map<Long, CourseAuthoringState> states = authoringStates.getAll(courseIds);
+        List<CoursePublishCheckResponse> checks = new ArrayList<>(courseIds.size());
+        for (Long courseId : courseIds) {
+            CourseAuthoringState state = states.get(courseId);
+            String blocker = state == null ? "Course not found" : publishBlocker(state);
+            checks.add(new CoursePublishCheckResponse(courseId, blocker == null, blocker));
         }
-        return course;
+        return checks;
     }
 
-    private boolean isOrderSequenceContinuous(Course course) {
-        Long totalTasks = taskRepository.countByCourse(course);
-        if (totalTasks == 0) {
-            return false;
+    private String publishBlocker(CourseAuthoringState state) {
+        if (state.status() != Status.BUILDING) {
+            return "Course is not in BUILDING status. Current status: " + state.status();
         }
-
-        int maxOrder = taskRepository.findMaxOrderByCourse(course).orElse(0);
-        return totalTasks == maxOrder;
+        if (!state.hasAllTypes()) {
+            return "Course must have at least one activity of each type (Open Text, Single Choice, Multiple Choice)";
+        }
+        if (!state.isOrderContinuous()) {
+            return "Activity orders are not continuous (e.g., 1, 2, 3...)";
+        }
+        return null;
     }
 
     private User validateInstructor(String email) {
-        Optional<User> user = userRepository.findByEmail(email);
+        Optional<User> user = userLookups.findByEmail(email);
         if (user.isEmpty()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -101,24 +128,25 @@ public class CourseService {
         return foundUser;
     }
 
-    public CourseResponse toCourseResponse(Course course) {
-        return new CourseResponse(course.getId(), course.getTitle(), course.getDescription(), course.getInstructor(), course.getStatus(), course.getCreatedAt(), course.getPublishedAt());
+    public CourseResponse toCourseResponse(Course course, InstructorSummary instructor) {
+        return new CourseResponse(course.getId(), course.getTitle(), course.getDescription(), instructor, course.getStatus(), course.getCreatedAt(), course.getPublishedAt());
     }
 
-    public List<CourseListItemDTO> getAllCourses() {
-        return courseRepository.findAll()
-                .stream()
-                .map(this::toCourseListItemDTO)
-                .toList();
+    public CoursePageResponse listCourses(String cursor, int size) {
+        long afterId = cursor == null ? 0L : IdCursor.decode(cursor);
+        List<CourseListItemDTO> courses = courseRepository.findListItemsAfter(afterId, Limit.of(size + 1));
+        boolean hasNext = courses.size() > size;
+        if (hasNext) {
+            courses = courses.subList(0, size);
+        }
+        String nextCursor = hasNext ? IdCursor.encode(courses.get(courses.size() - 1).getId()) : null;
+        return new CoursePageResponse(courses, nextCursor);
     }
 
-    private CourseListItemDTO toCourseListItemDTO(Course course) {
-        return new CourseListItemDTO(
-                course.getId(),
-                course.getTitle(),
-                course.getDescription(),
-                course.getStatus(),
-                course.getPublishedAt()
-        );
+    @Transactional(readOnly = true)
+    public void forEachCourse(ThrowingConsumer<CourseListItemDTO> action) {
+        try (Stream<CourseListItemDTO> courses = courseRepository.streamListItems()) {
+            courses.forEach(action);
+        }
     }
 }
@@ -0,0 +1,67 @@
+package br.com.alura.AluraFake.course;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Task counters of a course, kept up to date by the task writes in the same transaction
+ * and checked against the Task table by {@link CourseStatsReconciler}.
+ */
+@Entity
+public class CourseStats {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+    private int taskCount;
+    private int maxOrder;
+    private int openTextCount;
+    private int singleChoiceCount;
+    private int multipleChoiceCount;
+
+    @Deprecated
+    public CourseStats() {}
+
+    public CourseStats(Long courseId, int taskCount, int maxOrder,
+                       int openTextCount, int singleChoiceCount, int multipleChoiceCount) {
+        this.courseId = courseId;
+        this.taskCount = taskCount;
+        this.maxOrder = maxOrder;
+        this.openTextCount = openTextCount;
+        this.singleChoiceCount = singleChoiceCount;
+        this.multipleChoiceCount = multipleChoiceCount;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getMaxOrder() {
+        return maxOrder;
+    }
+
+    public int getOpenTextCount() {
+        return openTextCount;
+    }
+
+    public int getSingleChoiceCount() {
+        return singleChoiceCount;
+    }
+
+    public int getMultipleChoiceCount() {
+        return multipleChoiceCount;
+    }
+
+    public boolean hasSameCounts(CourseStats other) {
+        return taskCount == other.taskCount
+                && maxOrder == other.maxOrder
+                && openTextCount == other.openTextCount
+                && singleChoiceCount == other.singleChoiceCount
+                && multipleChoiceCount == other.multipleChoiceCount;
+    }
+}
@@ -0,0 +1,6 @@
+package br.com.alura.AluraFake.course;
+
+import java.util.List;
+
+public record CourseStatsRebuiltEvent(List<Long> courseIds) {
+}
@@ -0,0 +1,109 @@
+package br.com.alura.AluraFake.course;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Compares {@link CourseStats} with counts recomputed from the Task table and rebuilds the rows that
+ * drifted. Courses are walked by id in chunks, and each chunk is checked in its own transaction on a
+ * small thread pool, of virtual threads when {@code spring.threads.virtual.enabled} is set. A
+ * {@link CourseStatsRebuiltEvent} for each chunk's repaired courses lets the caches built on the stats
+ * drop them, and a failed chunk is logged without losing the others.
+ */
+@Component
+public class CourseStatsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseStatsReconciler.class);
+
+    private final CourseRepository courseRepository;
+    private final CourseStatsRepository courseStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+    private final int threads;
+    private final ThreadFactory threadFactory;
+
+    @Autowired
+    public CourseStatsReconciler(CourseRepository courseRepository, CourseStatsRepository courseStatsRepository,
+                                 PlatformTransactionManager transactionManager, ApplicationEventPublisher events,
+                                 @Value("${alurafake.course-stats.reconcile-chunk-size:500}") int chunkSize,
+                                 @Value("${alurafake.course-stats.reconcile-threads:4}") int threads,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.courseRepository = courseRepository;
+        this.courseStatsRepository = courseStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("course-stats-", 0).factory()
+                : Thread.ofPlatform().name("course-stats-", 0).factory();
+    }
+
+    @Scheduled(cron = "${alurafake.course-stats.reconcile-cron:0 0 3 * * *}")
+    public int reconcile() {
+        int repaired = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory)) {
+            Map<Long, Future<Integer>> chunks = new LinkedHashMap<>();
+            List<Long> courseIds = courseRepository.findIdsAfter(0L, Limit.of(chunkSize));
+            while (!courseIds.isEmpty()) {
+                List<Long> chunk = courseIds;
+                chunks.put(chunk.get(0), executor.submit(() -> reconcileChunk(chunk)));
+                courseIds = courseRepository.findIdsAfter(chunk.get(chunk.size() - 1), Limit.of(chunkSize));
+            }
+            for (Map.Entry<Long, Future<Integer>> chunk : chunks.entrySet()) {
+                try {
+                    repaired += chunk.getValue().get();
+                } catch (ExecutionException e) {
+                    log.error("Course stats reconciliation failed for the chunk starting at course {}",
+                            chunk.getKey(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (repaired > 0) {
+            log.warn("Rebuilt drifted course stats of {} courses", repaired);
+        }
+        return repaired;
+    }
+
+    int reconcileChunk(List<Long> courseIds) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, CourseStats> stored = new HashMap<>();
+            for (CourseStats stats : courseStatsRepository.findAllById(courseIds)) {
+                stored.put(stats.getCourseId(), stats);
+            }
+
+            List<Long> drifted = new ArrayList<>();
+            for (CourseStats actual : courseStatsRepository.computeFromTasks(courseIds)) {
+                CourseStats current = stored.get(actual.getCourseId());
+                if (current == null || !current.hasSameCounts(actual)) {
+                    drifted.add(actual.getCourseId());
+                }
+            }
+
+            if (!drifted.isEmpty()) {
+                courseStatsRepository.rebuild(drifted);
+                events.publishEvent(new CourseStatsRebuiltEvent(drifted));
+            }
+            return drifted.size();
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CourseStatsRepository extends JpaRepository<CourseStats, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO CourseStats (course_id, taskCount, maxOrder, openTextCount, singleChoiceCount, multipleChoiceCount) " +
+            "VALUES (:courseId, :tasks, :tasks, :openText, :singleChoice, :multipleChoice) " +
+            "ON DUPLICATE KEY UPDATE taskCount = taskCount + VALUES(taskCount), maxOrder = maxOrder + VALUES(maxOrder), " +
+            "openTextCount = openTextCount + VALUES(openTextCount), " +
+            "singleChoiceCount = singleChoiceCount + VALUES(singleChoiceCount), " +
+            "multipleChoiceCount = multipleChoiceCount + VALUES(multipleChoiceCount)",
+            nativeQuery = true)
+    void addTasks(@Param("courseId") Long courseId, @Param("tasks") int tasks, @Param("openText") int openText,
+                  @Param("singleChoice") int singleChoice, @Param("multipleChoice") int multipleChoice);
+
+    default void recordTasks(Long courseId, Collection<Type> types) {
+        int openText = 0;
+        int singleChoice = 0;
+        int multipleChoice = 0;
+        for (Type type : types) {
+            switch (type) {
+                case OPEN_TEXT -> openText++;
+                case SINGLE_CHOICE -> singleChoice++;
+                case MULTIPLE_CHOICE -> multipleChoice++;
+            }
+        }
+        addTasks(courseId, types.size(), openText, singleChoice, multipleChoice);
+    }
+
+    @Query("SELECT new br.com.alura.AluraFake.course.CourseStats(c.id, CAST(COUNT(t.id) AS Integer), " +
+            "CAST(COUNT(DISTINCT t.orderKey) AS Integer), " +
+            "CAST(SUM(CASE WHEN t.type = br.com.alura.AluraFake.task.Type.OPEN_TEXT THEN 1 ELSE 0 END) AS Integer), " +
+            "CAST(SUM(CASE WHEN t.type = br.com.alura.AluraFake.task.Type.SINGLE_CHOICE THEN 1 ELSE 0 END) AS Integer), " +
+            "CAST(SUM(CASE WHEN t.type = br.com.alura.AluraFake.task.Type.MULTIPLE_CHOICE THEN 1 ELSE 0 END) AS Integer)) " +
+            "FROM Course c LEFT JOIN Task t ON t.course = c WHERE c.id IN :courseIds GROUP BY c.id")
+    List<CourseStats> computeFromTasks(@Param("courseIds") Collection<Long> courseIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO CourseStats (course_id, taskCount, maxOrder, openTextCount, singleChoiceCount, multipleChoiceCount) " +
+            "SELECT c.id, COUNT(t.id), COUNT(DISTINCT t.orderKey), " +
+            "COALESCE(SUM(t.type = 'OPEN_TEXT'), 0), COALESCE(SUM(t.type = 'SINGLE_CHOICE'), 0), " +
+            "COALESCE(SUM(t.type = 'MULTIPLE_CHOICE'), 0) " +
+            "FROM Course c LEFT JOIN Task t ON t.course_id = c.id WHERE c.id IN (:courseIds) GROUP BY c.id " +
+            "ON DUPLICATE KEY UPDATE taskCount = VALUES(taskCount), maxOrder = VALUES(maxOrder), " +
+            "openTextCount = VALUES(openTextCount), singleChoiceCount = VALUES(singleChoiceCount), " +
+            "multipleChoiceCount = VALUES(multipleChoiceCount)",
+            nativeQuery = true)
+    int rebuild(@Param("courseIds") Collection<Long> courseIds);
+}
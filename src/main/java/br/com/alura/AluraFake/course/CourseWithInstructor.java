@@ -0,0 +1,14 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.course.dto.InstructorSummary;
+
+/**
+ * A managed {@link Course} read together with the instructor columns it is rendered with, so the
+ * lazy {@code instructor} association is never initialized.
+ */
+public record CourseWithInstructor(Course course, InstructorSummary instructor) {
+
+    public CourseWithInstructor(Course course, Long instructorId, String instructorName, String instructorEmail) {
+        this(course, new InstructorSummary(instructorId, instructorName, instructorEmail));
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.course.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CoursePageResponse {
+
+    private final List<CourseListItemDTO> courses;
+    private final String nextCursor;
+
+    public CoursePageResponse(List<CourseListItemDTO> courses, String nextCursor) {
+        this.courses = courses;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CourseListItemDTO> getCourses() { return courses; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,21 @@
+package br.com.alura.AluraFake.course.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CoursePublishCheckResponse {
+
+    private final Long courseId;
+    private final boolean publishable;
+    private final String reason;
+
+    public CoursePublishCheckResponse(Long courseId, boolean publishable, String reason) {
+        this.courseId = courseId;
+        this.publishable = publishable;
+        this.reason = reason;
+    }
+
+    public Long getCourseId() { return courseId; }
+    public boolean isPublishable() { return publishable; }
+    public String getReason() { return reason; }
+}
@@ -1,7 +1,6 @@
 package br.com.alura.AluraFake.course.dto;
 
 import br.com.alura.AluraFake.course.Status;
-import br.com.alura.AluraFake.user.User;
 
 import java.time.LocalDateTime;
 
@@ -10,13 +9,13 @@ public class CourseResponse {
     private final Long id;
     private final String title;
     private final String description;
-    private final User instructor;
+    private final InstructorSummary instructor;
     private final Status status;
     private final LocalDateTime createdAt;
     private final LocalDateTime publishedAt;
 
     public CourseResponse(Long id, String title, String description,
-                          User instructor, Status status,
+                          InstructorSummary instructor, Status status,
                           LocalDateTime createdAt, LocalDateTime publishedAt) {
         this.id = id;
         this.title = title;
@@ -30,7 +29,7 @@ public class CourseResponse {
     public Long getId() { return id; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
-    public User getInstructor() { return instructor; }
+    public InstructorSummary getInstructor() { return instructor; }
     public Status getStatus() { return status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getPublishedAt() { return publishedAt; }
@@ -0,0 +1,10 @@
+package br.com.alura.AluraFake.course.dto;
+
+import br.com.alura.AluraFake.user.User;
+
+public record InstructorSummary(Long id, String name, String email) {
+
+    public static InstructorSummary of(User instructor) {
+        return new InstructorSummary(instructor.getId(), instructor.getName(), instructor.getEmail());
+    }
+}
@@ -2,7 +2,6 @@ package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -13,7 +12,8 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "Task_SEQ", allocationSize = 50)
     private Long id;
 
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -26,10 +26,13 @@ public class Task {
     @Size(min = 4, max = 255)
     private String statement;
 
-    @Min(1)
-    @Column(name = "`order`")
+    // Contiguous 1..N position seen by clients, derived from the rank of orderKey
+    @Transient
     private Integer order;
 
+    @NotNull
+    private Long orderKey;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     private Type type;
@@ -37,6 +40,11 @@ public class Task {
     @Column(columnDefinition = "JSON")
     private String options;
 
+    @Column(columnDefinition = "VARBINARY(2048)")
+    private byte[] packedOptions;
+
+    private Integer optionsVersion;
+
     public Long getId() {
         return id;
     }
@@ -77,6 +85,14 @@ public class Task {
         this.order = order;
     }
 
+    public Long getOrderKey() {
+        return orderKey;
+    }
+
+    public void setOrderKey(Long orderKey) {
+        this.orderKey = orderKey;
+    }
+
     public Type getType() {
         return type;
     }
@@ -92,4 +108,20 @@ public class Task {
     public void setOptions(String options) {
         this.options = options;
     }
+
+    public byte[] getPackedOptions() {
+        return packedOptions;
+    }
+
+    public void setPackedOptions(byte[] packedOptions) {
+        this.packedOptions = packedOptions;
+    }
+
+    public Integer getOptionsVersion() {
+        return optionsVersion;
+    }
+
+    public void setOptionsVersion(Integer optionsVersion) {
+        this.optionsVersion = optionsVersion;
+    }
 }
@@ -3,20 +3,34 @@ package br.com.alura.AluraFake.task;
 import br.com.alura.AluraFake.task.dto.request.MultipleChoiceTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OpenTextTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.SingleChoiceTaskRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskOrderRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskPermutationRequest;
+import br.com.alura.AluraFake.task.dto.response.TaskPageResponse;
 import br.com.alura.AluraFake.task.dto.response.TaskResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskIngestionService taskIngestionService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskIngestionService taskIngestionService) {
         this.taskService = taskService;
+        this.taskIngestionService = taskIngestionService;
     }
 
     @PostMapping("/task/new/opentext")
@@ -37,4 +51,40 @@ public class TaskController {
         return taskService.createMultipleChoiceTask(request);
     }
 
+    @PostMapping("/course/{id}/tasks/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<TaskResponse> newTasksBatch(@PathVariable("id") Long courseId,
+                                            @Valid @RequestBody TaskBatchRequest request) {
+        return taskService.createTasksBatch(courseId, request);
+    }
+
+    @GetMapping("/course/{id}/tasks")
+    public TaskPageResponse listTasks(@PathVariable("id") Long courseId,
+                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                      @RequestParam(name = "size", defaultValue = "50") @Min(1) @Max(200) int size) {
+        return taskService.listTasks(courseId, cursor, size);
+    }
+
+    @PatchMapping("/task/{id}/order")
+    public TaskResponse moveTask(@PathVariable("id") Long taskId, @Valid @RequestBody TaskOrderRequest request) {
+        return taskService.moveTask(taskId, request.getOrder());
+    }
+
+    @PutMapping("/course/{id}/tasks/order")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void reorderTasks(@PathVariable("id") Long courseId, @Valid @RequestBody TaskPermutationRequest request) {
+        taskService.reorderTasks(courseId, request);
+    }
+
+    @PostMapping(value = "/course/{id}/tasks/stream", 
+            consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> newTasksStream(@PathVariable("id") Long courseId,
+                                                                HttpServletRequest request) {
+        taskIngestionService.validateCourse(courseId);
+        StreamingResponseBody body = output -> taskIngestionService.ingest(courseId, request.getInputStream(), output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringStateCache;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchItemRequest;
+import br.com.alura.AluraFake.task.dto.response.TaskIngestionResult;
+import br.com.alura.AluraFake.util.BoundedLineReader;
+import br.com.alura.AluraFake.util.CollationKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Reads NDJSON task records line by line and appends them to a course in fixed-size chunks,
+ * each chunk in its own transaction. Only one chunk of records and results is held in memory,
+ * and records longer than {@value #MAX_LINE_LENGTH} characters are rejected without being buffered.
+ * Each chunk rechecks that the course is in BUILDING and reads its last order key again, so tasks
+ * created while the stream runs are ordered before the chunk, and once the course is published every
+ * later record is rejected.
+ * <p>
+ * Only statements identical to a stored or earlier one are rejected without asking the database. Records
+ * whose {@link CollationKey} alone matches one are inserted one by one after their chunk, so
+ * {@code uk_task_course_statement} decides.
+ */
+@Service
+public class TaskIngestionService {
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_LINE_LENGTH = 16 * 1024;
+
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final TaskStatementIndex statementIndex;
+    private final CourseAuthoringStateCache authoringStates;
+    private final CourseStatsRepository courseStatsRepository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader itemReader;
+
+    @Autowired
+    public TaskIngestionService(TaskService taskService, TaskRepository taskRepository,
+                                TaskStatementIndex statementIndex, CourseAuthoringStateCache authoringStates,
+                                CourseStatsRepository courseStatsRepository, ApplicationEventPublisher events,
+                                PlatformTransactionManager transactionManager, Validator validator,
+                                ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.taskRepository = taskRepository;
+        this.statementIndex = statementIndex;
+        this.authoringStates = authoringStates;
+        this.courseStatsRepository = courseStatsRepository;
+        this.events = events;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(TaskBatchItemRequest.class);
+    }
+
+    public void validateCourse(Long courseId) {
+        taskService.findBuildingCourse(courseId);
+    }
+
+    public void ingest(Long courseId, InputStream input, OutputStream output) throws IOException {
+        Course course = taskService.findBuildingCourse(courseId);
+        IngestionState state = new IngestionState();
+
+        BoundedLineReader lines = new BoundedLineReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                MAX_LINE_LENGTH);
+        List<PendingRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        int lineNumber = 0;
+        while (lines.next()) {
+            lineNumber++;
+            if (lines.tooLong()) {
+                chunk.add(PendingRecord.rejected(lineNumber,
+                        "Task record exceeds " + MAX_LINE_LENGTH + " characters"));
+            } else if (!lines.line().isBlank()) {
+                chunk.add(parse(lineNumber, lines.line()));
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                flushChunk(course, state, chunk, output);
+            }
+        }
+        flushChunk(course, state, chunk, output);
+    }
+
+    private PendingRecord parse(int lineNumber, String line) {
+        TaskBatchItemRequest item;
+        try {
+            item = itemReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return PendingRecord.rejected(lineNumber, "Malformed task record");
+        }
+
+        Set<ConstraintViolation<TaskBatchItemRequest>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<TaskBatchItemRequest> violation = violations.iterator().next();
+            return PendingRecord.rejected(lineNumber, violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        try {
+            byte[] packedOptions = taskService.validateOptionsForType(item.getType(), item.getOptions(), item.getStatement());
+            return new PendingRecord(lineNumber, item, packedOptions, null);
+        } catch (ResponseStatusException e) {
+            return PendingRecord.rejected(lineNumber, e.getReason());
+        }
+    }
+
+    private void flushChunk(Course course, IngestionState state, List<PendingRecord> chunk,
+                            OutputStream output) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<TaskIngestionResult> results;
+        List<PendingRecord> deferred = new ArrayList<>();
+        if (state.closedReason != null) {
+            results = rejectAll(chunk, state.closedReason);
+        } else {
+            try {
+                results = executeChunk(() -> persistChunk(course, state, chunk, deferred));
+            } catch (DataIntegrityViolationException e) {
+                if (!TaskService.isStatementViolation(e)) {
+                    throw e;
+                }
+                // a statement was inserted concurrently; settle the chunk record by record so only that
+                // record is rejected
+                deferred.clear();
+                results = persistEach(course, state, chunk);
+            }
+        }
+        if (!deferred.isEmpty()) {
+            results.addAll(persistEach(course, state, deferred));
+            results.sort(Comparator.comparingInt(TaskIngestionResult::getLine));
+        }
+        for (TaskIngestionResult result : results) {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+        chunk.clear();
+    }
+
+    private List<TaskIngestionResult> persistEach(Course course, IngestionState state, List<PendingRecord> chunk) {
+        List<TaskIngestionResult> results = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            try {
+                results.addAll(executeChunk(() -> persistChunk(course, state, List.of(record), null)));
+            } catch (DataIntegrityViolationException e) {
+                if (!TaskService.isStatementViolation(e)) {
+                    throw e;
+                }
+                results.add(TaskIngestionResult.rejected(record.line(),
+                        taskService.duplicateStatementException().getReason()));
+            }
+        }
+        return results;
+    }
+
+    // a single-task insert committed after the chunk read the last order key can take the same key;
+    // the retry reads it again
+    private List<TaskIngestionResult> executeChunk(Supplier<List<TaskIngestionResult>> persist) {
+        try {
+            return transactionTemplate.execute(status -> persist.get());
+        } catch (DataIntegrityViolationException e) {
+            if (!TaskService.isOrderKeyViolation(e)) {
+                throw e;
+            }
+            return transactionTemplate.execute(status -> persist.get());
+        }
+    }
+
+    // deferred collects records only the collation keys match to a taken statement; null inserts them
+    private List<TaskIngestionResult> persistChunk(Course course, IngestionState state, List<PendingRecord> chunk,
+                                                   List<PendingRecord> deferred) {
+        if (deferred != null) {
+            deferred.clear();
+        }
+        // the course may have been published since the previous chunk
+        try {
+            taskService.findBuildingCourse(course.getId());
+        } catch (ResponseStatusException e) {
+            state.closedReason = e.getReason();
+            return rejectAll(chunk, state.closedReason);
+        }
+        // tasks may have been appended since the previous chunk, so its last key is not reused
+        int order = taskRepository.findMaxOrderByCourse(course).orElse(0);
+        long orderKey = taskRepository.findMaxOrderKeyByCourse(course).orElse(0L);
+
+        Set<String> statements = new HashSet<>();
+        for (PendingRecord record : chunk) {
+            if (record.item() != null) {
+                statements.add(record.item().getStatement());
+            }
+        }
+        // the IN lookup matches under the column collation and returns the stored spelling
+        Set<String> taken = new HashSet<>();
+        Set<String> takenKeys = new HashSet<>();
+        if (!statements.isEmpty()) {
+            for (String statement : taskRepository.findStatementsByCourseAndStatementIn(course, statements)) {
+                taken.add(statement);
+                takenKeys.add(CollationKey.of(statement));
+            }
+        }
+
+        List<Task> tasks = new ArrayList<>(chunk.size());
+        Map<Integer, Task> tasksByLine = new HashMap<>();
+        String duplicateMessage = taskService.duplicateStatementException().getReason();
+        for (PendingRecord record : chunk) {
+            if (record.item() == null || !taken.add(record.item().getStatement())) {
+                continue;
+            }
+            if (!takenKeys.add(CollationKey.of(record.item().getStatement())) && deferred != null) {
+                deferred.add(record);
+                continue;
+            }
+            order++;
+            orderKey += TaskService.ORDER_KEY_GAP;
+            TaskBatchItemRequest item = record.item();
+            Task task = taskService.newTask(course, item.getStatement(), order, orderKey,
+                    item.getType(), record.packedOptions());
+            tasks.add(task);
+            tasksByLine.put(record.line(), task);
+        }
+        taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        List<Type> types = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            statementIndex.add(course, task.getStatement());
+            types.add(task.getType());
+        }
+        if (!types.isEmpty()) {
+            courseStatsRepository.recordTasks(course.getId(), types);
+            events.publishEvent(new TasksCreatedEvent(course.getId(), types.size()));
+        }
+        authoringStates.recordTasksAdded(course.getId(), types);
+
+        List<TaskIngestionResult> results = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            Task task = tasksByLine.get(record.line());
+            if (deferred != null && deferred.contains(record)) {
+                continue;
+            }
+            if (task != null) {
+                results.add(TaskIngestionResult.created(record.line(), task.getId(), task.getOrder()));
+            } else {
+                results.add(TaskIngestionResult.rejected(record.line(),
+                        record.error() != null ? record.error() : duplicateMessage));
+            }
+        }
+        return results;
+    }
+
+    private List<TaskIngestionResult> rejectAll(List<PendingRecord> chunk, String reason) {
+        List<TaskIngestionResult> results = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            results.add(TaskIngestionResult.rejected(record.line(), record.error() != null ? record.error() : reason));
+        }
+        return results;
+    }
+
+    private record PendingRecord(int line, TaskBatchItemRequest item, byte[] packedOptions, String error) {
+
+        static PendingRecord rejected(int line, String error) {
+            return new PendingRecord(line, null, null, error);
+        }
+    }
+
+    private static final class IngestionState {
+        // set once the course leaves BUILDING; every later record is rejected with it
+        private String closedReason;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single place where task options are converted to and from their stored form.
+ * Responses for freshly written options are built from the in-memory list with {@link #toResponses}.
+ * <p>
+ * Rows use the {@link #PACKED_VERSION} layout in {@link Task#getPackedOptions()}: one byte with the
+ * option count, one byte with the correctness bitmask (bit {@code i} set when option {@code i} is correct),
+ * then each option text as an unsigned 16-bit big-endian length followed by its UTF-8 bytes.
+ */
+final class TaskOptionsCodec {
+
+    static final int PACKED_VERSION = 2;
+
+    private TaskOptionsCodec() {
+    }
+
+    static byte[] pack(List<OptionRequest> options) {
+        if (options.size() > Byte.SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Error trying to process options");
+        }
+        byte[][] texts = new byte[options.size()][];
+        int length = 2;
+        int correctMask = 0;
+        for (int i = 0; i < texts.length; i++) {
+            OptionRequest option = options.get(i);
+            texts[i] = option.getOption().getBytes(StandardCharsets.UTF_8);
+            length += Short.BYTES + texts[i].length;
+            if (Boolean.TRUE.equals(option.getIsCorrect())) {
+                correctMask |= 1 << i;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put((byte) texts.length).put((byte) correctMask);
+        for (byte[] text : texts) {
+            buffer.putShort((short) text.length).put(text);
+        }
+        return buffer.array();
+    }
+
+    static List<OptionResponse> unpack(byte[] packed) {
+        if (packed == null) {
+            return null;
+        }
+        int count = packed[0] & 0xFF;
+        int correctMask = packed[1] & 0xFF;
+        List<OptionResponse> responses = new ArrayList<>(count);
+        int position = 2;
+        for (int i = 0; i < count; i++) {
+            int length = ((packed[position] & 0xFF) << 8) | (packed[position + 1] & 0xFF);
+            position += Short.BYTES;
+            String text = new String(packed, position, length, StandardCharsets.UTF_8);
+            position += length;
+            responses.add(new OptionResponse(text, (correctMask & (1 << i)) != 0));
+        }
+        return responses;
+    }
+
+    static boolean isPacked(Integer optionsVersion) {
+        return optionsVersion != null && optionsVersion == PACKED_VERSION;
+    }
+
+    static List<OptionResponse> toResponses(List<OptionRequest> options) {
+        if (options == null) {
+            return null;
+        }
+        List<OptionResponse> responses = new ArrayList<>(options.size());
+        for (OptionRequest option : options) {
+            responses.add(new OptionResponse(option.getOption(), option.getIsCorrect()));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Checks the options of a choice task in a single walk over the list: size, text length, collision
+ * with the statement, uniqueness and correct/incorrect counts. With at most {@link #MAX_OPTIONS}
+ * options uniqueness is a pairwise comparison, so a valid payload allocates nothing.
+ * Errors are reported in the same precedence as the rules are listed above.
+ */
+final class TaskOptionsValidator {
+
+    static final int MAX_OPTIONS = 5;
+    static final int MIN_OPTION_LENGTH = 4;
+    static final int MAX_OPTION_LENGTH = 80;
+
+    private TaskOptionsValidator() {
+    }
+
+    static void validate(Type type, List<OptionRequest> options, String statement) {
+        boolean singleChoice = type == Type.SINGLE_CHOICE;
+        if (options == null) {
+            throw badRequest(singleChoice
+                    ? "Single choice task must have options"
+                    : "Multiple choice task must have options");
+        }
+
+        int size = options.size();
+        if (size < (singleChoice ? 2 : 3) || size > MAX_OPTIONS) {
+            throw badRequest(singleChoice
+                    ? "The activity must have at least 2 and at most 5 alternatives"
+                    : "Activity must have at least 3 and at most 5 alternatives");
+        }
+
+        int correctCount = 0;
+        boolean duplicated = false;
+        for (int i = 0; i < size; i++) {
+            OptionRequest option = options.get(i);
+            String text = option.getOption();
+            if (text == null || text.length() < MIN_OPTION_LENGTH || text.length() > MAX_OPTION_LENGTH) {
+                throw badRequest("Options must have between 4 and 80 characters. " +
+                        "Problem in option: '" + text + "'");
+            }
+
+            if (text.equals(statement)) {
+                throw badRequest("Options cannot be the same as the task statement. " +
+                        "Problem in option: '" + text + "'");
+            }
+
+            for (int j = 0; j < i && !duplicated; j++) {
+                duplicated = text.equals(options.get(j).getOption());
+            }
+
+            if (Boolean.TRUE.equals(option.getIsCorrect())) {
+                correctCount++;
+            }
+        }
+
+        if (duplicated) {
+            throw badRequest("All options must be unique");
+        }
+
+        if (singleChoice) {
+            if (correctCount != 1) {
+                throw badRequest("Activity must have one correct option, Found: " + correctCount);
+            }
+            return;
+        }
+
+        if (correctCount < 2) {
+            throw badRequest("Activity must have at least two correct options");
+        }
+        if (size - correctCount < 1) {
+            throw badRequest("Activity must have at least one incorrect option");
+        }
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.task;
+
+public record TaskOrderKey(Long id, Long orderKey) {
+}
@@ -1,10 +1,13 @@
 package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,14 +15,57 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     boolean existsByCourseAndStatement(Course course, String statement);
 
-    @Query("SELECT MAX(t.order) FROM Task t WHERE t.course = :course")
+    @Query("SELECT CAST(COUNT(DISTINCT t.orderKey) AS Integer) FROM Task t WHERE t.course = :course")
     Optional<Integer> findMaxOrderByCourse(@Param("course") Course course);
 
-    @Query("SELECT t FROM Task t WHERE t.course = :course AND t.order >= :order ORDER BY t.order DESC")
-    List<Task> findByCourseAndOrderGreaterThanEqualOrderByOrderDesc(
-            @Param("course") Course course,
-            @Param("order") Integer order
-    );
+    @Query("SELECT MAX(t.orderKey) FROM Task t WHERE t.course = :course")
+    Optional<Long> findMaxOrderKeyByCourse(@Param("course") Course course);
+
+    @Query("SELECT t.statement FROM Task t WHERE t.course = :course")
+    List<String> findStatementsByCourse(@Param("course") Course course);
+
+    @Query("SELECT t.statement FROM Task t WHERE t.course = :course AND t.statement IN :statements")
+    List<String> findStatementsByCourseAndStatementIn(@Param("course") Course course,
+                                                      @Param("statements") Collection<String> statements);
+
+    @Query("SELECT new br.com.alura.AluraFake.task.TaskOrderKey(t.id, t.orderKey) FROM Task t " +
+            "WHERE t.course = :course ORDER BY t.orderKey")
+    List<TaskOrderKey> findOrderKeysByCourse(@Param("course") Course course);
+
+    @Query("SELECT new br.com.alura.AluraFake.task.TaskSummary(t.id, t.statement, t.orderKey, t.type, t.createdAt, " +
+            "t.packedOptions, t.optionsVersion) " +
+            "FROM Task t WHERE t.course.id = :courseId AND t.orderKey > :afterKey ORDER BY t.orderKey")
+    List<TaskSummary> findSummariesByCourseIdAfterOrderKey(@Param("courseId") Long courseId,
+                                                           @Param("afterKey") Long afterKey,
+                                                           Limit limit);
+
+    long countByCourseAndOrderKeyLessThan(Course course, Long orderKey);
+
+    long countByCourseIdAndOrderKeyLessThanEqual(Long courseId, Long orderKey);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Task t SET t.orderKey = :orderKey WHERE t.id = :id")
+    int updateOrderKey(@Param("id") Long id, @Param("orderKey") Long orderKey);
+
+    @Query(value = "SELECT orderKey FROM Task WHERE course_id = :courseId ORDER BY orderKey LIMIT 2 OFFSET :offset",
+            nativeQuery = true)
+    List<Long> findOrderKeysFromOffset(@Param("courseId") Long courseId, @Param("offset") int offset);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE Task SET orderKey = -orderKey WHERE course_id = :courseId AND orderKey >= :fromKey",
+            nativeQuery = true)
+    int negateOrderKeysFrom(@Param("courseId") Long courseId, @Param("fromKey") Long fromKey);
+
+    @Modifying
+    @Query(value = "UPDATE Task SET orderKey = :delta - orderKey WHERE course_id = :courseId AND orderKey < 0",
+            nativeQuery = true)
+    int restoreNegatedOrderKeys(@Param("courseId") Long courseId, @Param("delta") long delta);
+
+    // Two-phase so uk_task_course_order_key never sees an intermediate duplicate
+    default void shiftOrderKeysFrom(Long courseId, Long fromKey, long delta) {
+        negateOrderKeysFrom(courseId, fromKey);
+        restoreNegatedOrderKeys(courseId, delta);
+    }
 
     @Query("SELECT COUNT(DISTINCT t.type) FROM Task t WHERE t.course = :course")
     Long countDistinctTypeByCourse(@Param("course") Course course);
@@ -1,24 +1,38 @@
 package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringState;
+import br.com.alura.AluraFake.course.CourseAuthoringStateCache;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
 import br.com.alura.AluraFake.course.Status;
 import br.com.alura.AluraFake.task.dto.request.MultipleChoiceTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OpenTextTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OptionRequest;
 import br.com.alura.AluraFake.task.dto.request.SingleChoiceTaskRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchItemRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskPermutationRequest;
 import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import br.com.alura.AluraFake.task.dto.response.TaskPageResponse;
 import br.com.alura.AluraFake.task.dto.response.TaskResponse;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import br.com.alura.AluraFake.util.IdCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 
 @Service
@@ -28,213 +42,406 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TaskStatementIndex statementIndex;
+
+    private final CourseAuthoringStateCache authoringStates;
+
+    private final CourseStatsRepository courseStatsRepository;
+
+    private final ApplicationEventPublisher events;
+
+    static final long ORDER_KEY_GAP = 1L << 20;
+
+    private static final String CANNOT_ADD_TASKS = "Cannot add tasks to a course that is not in BUILDING status";
+
+    private static final String CANNOT_REORDER_TASKS = "Cannot reorder tasks of a course that is not in BUILDING status";
 
     @Autowired
-    public TaskService(CourseRepository courseRepository, TaskRepository taskRepository) {
+    public TaskService(CourseRepository courseRepository, TaskRepository taskRepository,
+                       TaskStatementIndex statementIndex, CourseAuthoringStateCache authoringStates,
+                       CourseStatsRepository courseStatsRepository, ApplicationEventPublisher events) {
         this.courseRepository = courseRepository;
         this.taskRepository = taskRepository;
+        this.statementIndex = statementIndex;
+        this.authoringStates = authoringStates;
+        this.courseStatsRepository = courseStatsRepository;
+        this.events = events;
     }
 
     //TODO: Create specific exception classes for better error handling
+    @Transactional
     public TaskResponse createOpenTextTask(OpenTextTaskRequest request) {
         Course course = validateCommonRequirements(request.getCourseId(), request.getStatement(), request.getOrder());
-        shiftTasksForNewOrder(course, request.getOrder());
-        Task task = persistTask(course, request.getStatement(), request.getOrder(), Type.OPEN_TEXT, null);
-        return taskToResponseDTO(task);
+        Long orderKey = orderKeyAfterRank(course, request.getOrder() - 1);
+        Task task = persistTask(course, request.getStatement(), request.getOrder(), orderKey, Type.OPEN_TEXT, null);
+        return taskToResponseDTO(task, null);
     }
 
+    @Transactional
     public TaskResponse createSingleChoiceTask(SingleChoiceTaskRequest request) {
         Course course = validateCommonRequirements(request.getCourseId(), request.getStatement(), request.getOrder());
-        validateSingleChoiceOptions(request.getOptions(), request.getStatement());
-        shiftTasksForNewOrder(course, request.getOrder());
-        String optionsJson = convertOptionsToJson(request.getOptions());
-        Task task = persistTask(course, request.getStatement(), request.getOrder(), Type.SINGLE_CHOICE, optionsJson);
-        return taskToResponseDTO(task);
+        TaskOptionsValidator.validate(Type.SINGLE_CHOICE, request.getOptions(), request.getStatement());
+        Long orderKey = orderKeyAfterRank(course, request.getOrder() - 1);
+        byte[] packedOptions = TaskOptionsCodec.pack(request.getOptions());
+        Task task = persistTask(course, request.getStatement(), request.getOrder(), orderKey, Type.SINGLE_CHOICE, packedOptions);
+        return taskToResponseDTO(task, TaskOptionsCodec.toResponses(request.getOptions()));
     }
 
+    @Transactional
     public TaskResponse createMultipleChoiceTask(MultipleChoiceTaskRequest request) {
         Course course = validateCommonRequirements(request.getCourseId(), request.getStatement(), request.getOrder());
-        validateMultipleChoiceOptions(request.getOptions(), request.getStatement());
-        shiftTasksForNewOrder(course, request.getOrder());
-        String optionsJson = convertOptionsToJson(request.getOptions());
-        Task task = persistTask(course, request.getStatement(), request.getOrder(), Type.MULTIPLE_CHOICE, optionsJson);
-        return taskToResponseDTO(task);
+        TaskOptionsValidator.validate(Type.MULTIPLE_CHOICE, request.getOptions(), request.getStatement());
+        Long orderKey = orderKeyAfterRank(course, request.getOrder() - 1);
+        byte[] packedOptions = TaskOptionsCodec.pack(request.getOptions());
+        Task task = persistTask(course, request.getStatement(), request.getOrder(), orderKey, Type.MULTIPLE_CHOICE, packedOptions);
+        return taskToResponseDTO(task, TaskOptionsCodec.toResponses(request.getOptions()));
     }
 
 
-    private Course validateCommonRequirements(Long courseId, String statement, Integer order) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Course not found"));
+    @Transactional
+    public List<TaskResponse> createTasksBatch(Long courseId, TaskBatchRequest request) {
+        Course course = findBuildingCourse(courseId);
+        // identical statements are duplicates under any collation; ones that differ only in case or
+        // accents are left to uk_task_course_statement, which flushTasks maps to the same error
+        Set<String> statements = new HashSet<>();
+        for (TaskBatchItemRequest item : request.getTasks()) {
+            if (!statements.add(item.getStatement())) {
+                throw duplicateStatementException();
+            }
+        }
+        // the IN lookup compares under the column collation
+        if (!taskRepository.findStatementsByCourseAndStatementIn(course, statements).isEmpty()) {
+            throw duplicateStatementException();
+        }
+        int order = taskRepository.findMaxOrderByCourse(course).orElse(0);
+        long orderKey = taskRepository.findMaxOrderKeyByCourse(course).orElse(0L);
+
+        List<Task> tasks = new ArrayList<>(request.getTasks().size());
+        for (TaskBatchItemRequest item : request.getTasks()) {
+            byte[] packedOptions = validateOptionsForType(item.getType(), item.getOptions(), item.getStatement());
+            order++;
+            orderKey += ORDER_KEY_GAP;
+            tasks.add(newTask(course, item.getStatement(), order, orderKey, item.getType(), packedOptions));
+        }
 
-        if (course.getStatus() != Status.BUILDING) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Cannot add tasks to a course that is not in BUILDING status");
+        List<Task> saved = taskRepository.saveAll(tasks);
+        flushTasks();
+        List<Type> types = new ArrayList<>(request.getTasks().size());
+        for (TaskBatchItemRequest item : request.getTasks()) {
+            statementIndex.add(course, item.getStatement());
+            types.add(item.getType());
+        }
+        courseStatsRepository.recordTasks(course.getId(), types);
+        authoringStates.recordTasksAdded(course.getId(), types);
+        events.publishEvent(new TasksCreatedEvent(course.getId(), types.size()));
+        List<TaskResponse> responses = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            TaskBatchItemRequest item = request.getTasks().get(i);
+            List<OptionResponse> options = item.getType() == Type.OPEN_TEXT ? null : TaskOptionsCodec.toResponses(item.getOptions());
+            responses.add(taskToResponseDTO(saved.get(i), options));
         }
+        return responses;
+    }
 
-        boolean statementExists = taskRepository.existsByCourseAndStatement(course, statement);
-        if (statementExists) {
+    @Transactional(readOnly = true)
+    public TaskPageResponse listTasks(Long courseId, String cursor, int size) {
+        if (authoringStates.get(courseId).isEmpty()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "Already exists a task with the same statement in this course");
+                    "Course not found");
         }
 
-        int maxOrder = taskRepository.findMaxOrderByCourse(course).orElse(0);
-        if (order > maxOrder + 1) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    String.format("Invalid Order, must be continuous" +
-                            "Next allowed order is %d", maxOrder + 1));
+        // the cursor holds only the last order key; the rank is counted, so moves between pages renumber
+        long afterKey = cursor == null ? 0L : IdCursor.decode(cursor);
+        int order = afterKey == 0L ? 0 : (int) taskRepository.countByCourseIdAndOrderKeyLessThanEqual(courseId, afterKey);
+
+        List<TaskSummary> summaries = taskRepository.findSummariesByCourseIdAfterOrderKey(
+                courseId, afterKey, Limit.of(size + 1));
+        boolean hasNext = summaries.size() > size;
+        if (hasNext) {
+            summaries = summaries.subList(0, size);
         }
-        return course;
-    }
 
-    private void shiftTasksForNewOrder(Course course, Integer newOrder) {
-        List<Task> tasksToShift = taskRepository.findByCourseAndOrderGreaterThanEqualOrderByOrderDesc(course, newOrder);
-        for (Task task : tasksToShift) {
-            task.setOrder(task.getOrder() + 1);
+        List<TaskResponse> tasks = new ArrayList<>(summaries.size());
+        for (TaskSummary summary : summaries) {
+            order++;
+            tasks.add(storedTaskResponse(summary.id(), courseId, summary.statement(), order, summary.type(),
+                    summary.createdAt(), summary.packedOptions(), summary.optionsVersion()));
         }
-        taskRepository.saveAll(tasksToShift);
+
+        String nextCursor = hasNext ? IdCursor.encode(summaries.get(summaries.size() - 1).orderKey()) : null;
+        return new TaskPageResponse(tasks, nextCursor);
     }
 
-    private void validateSingleChoiceOptions(List<OptionRequest> options, String statement) {
-        if (options == null) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Single choice task must have options");
-        }
+    private TaskResponse storedTaskResponse(Long id, Long courseId, String statement, Integer order, Type type,
+                                            LocalDateTime createdAt, byte[] packedOptions, Integer optionsVersion) {
+        List<OptionResponse> options = TaskOptionsCodec.isPacked(optionsVersion)
+                ? TaskOptionsCodec.unpack(packedOptions)
+                : null;
+        return new TaskResponse(id, courseId, statement, order, type, createdAt, options);
+    }
 
-        int size = options.size();
-        if (size < 2 || size > 5) {
+    @Transactional
+    public TaskResponse moveTask(Long taskId, Integer newOrder) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Task not found"));
+        Course course = findBuildingCourse(task.getCourse().getId(), CANNOT_REORDER_TASKS);
+
+        int taskCount = taskRepository.findMaxOrderByCourse(course).orElse(0);
+        if (newOrder > taskCount) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "The activity must have at least 2 and at most 5 alternatives");
+                    String.format("Invalid Order, must be between 1 and %d", taskCount));
         }
 
-        validateCommonOptionRules(options, statement);
+        int currentOrder = (int) taskRepository.countByCourseAndOrderKeyLessThan(course, task.getOrderKey()) + 1;
+        if (newOrder != currentOrder) {
+            int rank = newOrder < currentOrder ? newOrder - 1 : newOrder;
+            taskRepository.updateOrderKey(task.getId(), orderKeyAfterRank(course, rank));
+        }
+        return storedTaskResponse(task.getId(), course.getId(), task.getStatement(), newOrder, task.getType(),
+                task.getCreatedAt(), task.getPackedOptions(), task.getOptionsVersion());
+    }
 
-        long correctCount = options.stream()
-                .filter(OptionRequest::getIsCorrect)
-                .count();
+    @Transactional
+    public void reorderTasks(Long courseId, TaskPermutationRequest request) {
+        Course course = findBuildingCourse(courseId, CANNOT_REORDER_TASKS);
+        List<TaskOrderKey> current = taskRepository.findOrderKeysByCourse(course);
+        List<Long> taskIds = request.getTaskIds();
 
-        if (correctCount != 1) {
+        Map<Long, Integer> currentRanks = new HashMap<>();
+        for (int i = 0; i < current.size(); i++) {
+            currentRanks.put(current.get(i).id(), i);
+        }
+        if (taskIds.size() != current.size() || !currentRanks.keySet().containsAll(taskIds)
+                || new HashSet<>(taskIds).size() != taskIds.size()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "Activity must have one correct option, Found: " + correctCount);
+                    "Task ids must contain every task of the course exactly once");
+        }
+
+        int[] ranks = new int[taskIds.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = currentRanks.get(taskIds.get(i));
         }
+        boolean[] kept = longestIncreasingSubsequence(ranks);
+
+        Map<Long, Long> newKeys = new HashMap<>();
+        long previousKey = 0L;
+        int runStart = 0;
+        for (int i = 0; i <= ranks.length; i++) {
+            if (i < ranks.length && !kept[i]) {
+                continue;
+            }
+            Long nextKey = i < ranks.length ? current.get(ranks[i]).orderKey() : null;
+            int runLength = i - runStart;
+            if (runLength > 0) {
+                long step = nextKey == null ? ORDER_KEY_GAP : (nextKey - previousKey) / (runLength + 1);
+                if (step < 1) {
+                    renumberOrderKeys(taskIds);
+                    return;
+                }
+                for (int j = 0; j < runLength; j++) {
+                    newKeys.put(taskIds.get(runStart + j), previousKey + step * (j + 1));
+                }
+            }
+            if (nextKey != null) {
+                previousKey = nextKey;
+            }
+            runStart = i + 1;
+        }
+        applyOrderKeys(newKeys);
     }
 
-    private String convertOptionsToJson(List<OptionRequest> options) {
-        try {
-            return objectMapper.writeValueAsString(options);
-        } catch (JsonProcessingException e) {
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error trying to process options");
+    byte[] validateOptionsForType(Type type, List<OptionRequest> options, String statement) {
+        if (type != Type.SINGLE_CHOICE && type != Type.MULTIPLE_CHOICE) {
+            return null;
         }
+        TaskOptionsValidator.validate(type, options, statement);
+        return TaskOptionsCodec.pack(options);
     }
 
-    private void validateMultipleChoiceOptions(List<OptionRequest> options, String statement) {
-        if (options == null) {
+    Course findBuildingCourse(Long courseId) {
+        return findBuildingCourse(courseId, CANNOT_ADD_TASKS);
+    }
+
+    private Course findBuildingCourse(Long courseId, String notBuildingMessage) {
+        buildingState(courseId, notBuildingMessage);
+        return courseRepository.getReferenceById(courseId);
+    }
+
+    private CourseAuthoringState buildingState(Long courseId, String notBuildingMessage) {
+        CourseAuthoringState state = authoringStates.get(courseId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Course not found"));
+
+        if (state.status() != Status.BUILDING) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "Multiple choice task must have options");
+                    notBuildingMessage);
         }
 
-        int size = options.size();
-        if (size < 3 || size > 5) {
+        // the cached state may miss a publish made through another instance
+        if (courseRepository.findStatusById(courseId).orElse(null) != Status.BUILDING) {
+            authoringStates.evict(courseId);
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "Activity must have at least 3 and at most 5 alternatives");
+                    notBuildingMessage);
         }
+        return state;
+    }
 
-        validateCommonOptionRules(options, statement);
+    ResponseStatusException duplicateStatementException() {
+        return new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                "Already exists a task with the same statement in this course");
+    }
 
-        long correctCount = options.stream()
-                .filter(OptionRequest::getIsCorrect)
-                .count();
+    private Course validateCommonRequirements(Long courseId, String statement, Integer order) {
+        CourseAuthoringState state = buildingState(courseId, CANNOT_ADD_TASKS);
+        Course course = courseRepository.getReferenceById(courseId);
+        boolean statementExists = statementIndex.exists(course, statement);
+        if (statementExists) {
+            throw duplicateStatementException();
+        }
 
-        if (correctCount < 2) {
+        int maxOrder = state.maxOrder();
+        if (order > maxOrder + 1) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "Activity must have at least two correct options");
+                    String.format("Invalid Order, must be continuous" +
+                            "Next allowed order is %d", maxOrder + 1));
         }
+        return course;
+    }
 
-        long incorrectCount = size - correctCount;
-        if (incorrectCount < 1) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Activity must have at least one incorrect option");
+    private Long orderKeyAfterRank(Course course, int rank) {
+        List<Long> neighbours = taskRepository.findOrderKeysFromOffset(course.getId(), Math.max(rank - 1, 0));
+
+        long previousKey = 0L;
+        Long nextKey = neighbours.isEmpty() ? null : neighbours.get(0);
+        if (rank > 0) {
+            previousKey = neighbours.get(0);
+            nextKey = neighbours.size() > 1 ? neighbours.get(1) : null;
+        }
+
+        if (nextKey == null) {
+            return previousKey + ORDER_KEY_GAP;
+        }
+        if (nextKey - previousKey > 1) {
+            return previousKey + (nextKey - previousKey) / 2;
         }
+
+        taskRepository.shiftOrderKeysFrom(course.getId(), nextKey, ORDER_KEY_GAP);
+        return previousKey + (nextKey + ORDER_KEY_GAP - previousKey) / 2;
     }
 
-    private void validateCommonOptionRules(List<OptionRequest> options, String statement) {
-        for (OptionRequest option : options) {
-            String text = option.getOption();
-            if (text == null || text.length() < 4 || text.length() > 80) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Options must have between 4 and 80 characters. " +
-                                "Problem in option: '" + text + "'");
+    private boolean[] longestIncreasingSubsequence(int[] values) {
+        int[] tailIndexes = new int[values.length];
+        int[] previous = new int[values.length];
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[tailIndexes[middle]] < values[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
             }
-
-            if (text.equals(statement)) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Options cannot be the same as the task statement. " +
-                                "Problem in option: '" + text + "'");
+            previous[i] = low > 0 ? tailIndexes[low - 1] : -1;
+            tailIndexes[low] = i;
+            if (low == length) {
+                length++;
             }
         }
 
-        long distinctCount = options.stream()
-                .map(OptionRequest::getOption)
-                .distinct()
-                .count();
+        boolean[] kept = new boolean[values.length];
+        for (int i = length > 0 ? tailIndexes[length - 1] : -1; i >= 0; i = previous[i]) {
+            kept[i] = true;
+        }
+        return kept;
+    }
 
-        if (distinctCount != options.size()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "All options must be unique");
+    private void renumberOrderKeys(List<Long> orderedTaskIds) {
+        Map<Long, Long> newKeys = new HashMap<>();
+        for (int i = 0; i < orderedTaskIds.size(); i++) {
+            newKeys.put(orderedTaskIds.get(i), (i + 1L) * ORDER_KEY_GAP);
         }
+        applyOrderKeys(newKeys);
     }
 
-    private Task persistTask(Course course, String statement, Integer order, Type type, String optionsJson) {
-        Task task = new Task();
-        task.setCourse(course);
-        task.setStatement(statement);
-        task.setOrder(order);
-        task.setType(type);
+    private void applyOrderKeys(Map<Long, Long> newKeys) {
+        if (newKeys.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = taskRepository.findAllById(newKeys.keySet());
+        for (Task task : tasks) {
+            task.setOrderKey(-newKeys.get(task.getId()));
+        }
+        taskRepository.saveAllAndFlush(tasks);
 
-        if (optionsJson != null) {
-            task.setOptions(optionsJson);
+        for (Task task : tasks) {
+            task.setOrderKey(newKeys.get(task.getId()));
         }
-        return taskRepository.save(task);
+        taskRepository.saveAllAndFlush(tasks);
     }
 
-    private TaskResponse taskToResponseDTO(Task task) {
-        List<OptionResponse> options = null;
-        if (task.getOptions() != null) {
-            options = convertJsonToOptionResponses(task.getOptions());
-        }
-        return new TaskResponse(task.getId(), task.getCourse().getId(), task.getStatement(), task.getOrder(), task.getType(), task.getCreatedAt(), options);
+    private Task persistTask(Course course, String statement, Integer order, Long orderKey, Type type, byte[] packedOptions) {
+        Task task = taskRepository.save(newTask(course, statement, order, orderKey, type, packedOptions));
+        flushTasks();
+        courseStatsRepository.recordTasks(course.getId(), List.of(type));
+        statementIndex.add(course, statement);
+        authoringStates.recordTaskAdded(course.getId(), type);
+        events.publishEvent(new TasksCreatedEvent(course.getId(), 1));
+        return task;
     }
 
-    private List<OptionResponse> convertJsonToOptionResponses(String optionsJson) {
+    private void flushTasks() {
         try {
-            List<OptionRequest> optionRequests = objectMapper.readValue(
-                    optionsJson,
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, OptionRequest.class)
-            );
+            taskRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isStatementViolation(e)) {
+                throw duplicateStatementException();
+            }
+            throw e;
+        }
+    }
 
-            return optionRequests.stream()
-                    .map(req -> new OptionResponse(req.getOption(), req.getIsCorrect()))
-                    .collect(Collectors.toList());
+    static boolean isStatementViolation(DataIntegrityViolationException e) {
+        return violates(e, "uk_task_course_statement");
+    }
 
-        } catch (JsonProcessingException e) {
-            return Collections.emptyList();
+    static boolean isOrderKeyViolation(DataIntegrityViolationException e) {
+        return violates(e, "uk_task_course_order_key");
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        String cause = e.getMostSpecificCause().getMessage();
+        return cause != null && cause.contains(constraint);
+    }
+
+    Task newTask(Course course, String statement, Integer order, Long orderKey, Type type, byte[] packedOptions) {
+        Task task = new Task();
+        task.setCourse(course);
+        task.setStatement(statement);
+        task.setOrder(order);
+        task.setOrderKey(orderKey);
+        task.setType(type);
+
+        if (packedOptions != null) {
+            task.setPackedOptions(packedOptions);
+            task.setOptionsVersion(TaskOptionsCodec.PACKED_VERSION);
         }
+        return task;
+    }
+
+    private TaskResponse taskToResponseDTO(Task task, List<OptionResponse> options) {
+        return new TaskResponse(task.getId(), task.getCourse().getId(), task.getStatement(), task.getOrder(), task.getType(), task.getCreatedAt(), options);
     }
 }
@@ -0,0 +1,170 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.util.CollationKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter of statements per course, loaded on the first lookup for the course and
+ * extended on insert. Statements are hashed by their {@link CollationKey}, so a statement the filter has
+ * not seen matches no stored statement under {@code uk_task_course_statement}'s case- and
+ * accent-insensitive collation, and the database is only asked about possible duplicates. The filter
+ * answers "maybe" for about 1% of new statements; a filter that outgrows its sizing is dropped and
+ * reloaded. Differences between {@link CollationKey} and the collation, rolled-back inserts and inserts
+ * that raced with the warm-up can still make it wrong in either direction; the unique key stays the
+ * final authority.
+ * <p>
+ * Filters are sized for twice the statements loaded, and their total capacity is bounded by
+ * {@code alurafake.task-statement-index.max-entries}, evicting the least recently used courses.
+ * <p>
+ * Metrics: {@code task.statement.index} counts lookups by {@code result}: {@code skipped} (answered
+ * without the database), {@code duplicate} (confirmed) and {@code false_positive}.
+ */
+@Component
+public class TaskStatementIndex {
+
+    static final int MIN_CAPACITY = 64;
+    static final int BITS_PER_STATEMENT = 10;
+    static final int PROBES = 7;
+
+    private final TaskRepository taskRepository;
+    private final long maxEntries;
+    private final LinkedHashMap<Long, StatementFilter> filtersByCourse = new LinkedHashMap<>(16, 0.75f, true);
+    private long entriesInUse;
+    private final Counter skipped;
+    private final Counter duplicates;
+    private final Counter falsePositives;
+
+    @Autowired
+    public TaskStatementIndex(TaskRepository taskRepository, MeterRegistry meterRegistry,
+                              @Value("${alurafake.task-statement-index.max-entries:1000000}") long maxEntries) {
+        this.taskRepository = taskRepository;
+        this.maxEntries = maxEntries;
+        this.skipped = meterRegistry.counter("task.statement.index", "result", "skipped");
+        this.duplicates = meterRegistry.counter("task.statement.index", "result", "duplicate");
+        this.falsePositives = meterRegistry.counter("task.statement.index", "result", "false_positive");
+    }
+
+    public boolean exists(Course course, String statement) {
+        if (!filterFor(course).mightContain(fingerprint(statement))) {
+            skipped.increment();
+            return false;
+        }
+
+        boolean exists = taskRepository.existsByCourseAndStatement(course, statement);
+        (exists ? duplicates : falsePositives).increment();
+        return exists;
+    }
+
+    public void add(Course course, String statement) {
+        StatementFilter filter = cached(course.getId());
+        if (filter != null && !filter.add(fingerprint(statement))) {
+            drop(course.getId(), filter);
+        }
+    }
+
+    synchronized long entriesInUse() {
+        return entriesInUse;
+    }
+
+    private StatementFilter filterFor(Course course) {
+        StatementFilter filter = cached(course.getId());
+        if (filter != null) {
+            return filter;
+        }
+
+        List<String> statements = taskRepository.findStatementsByCourse(course);
+        StatementFilter loaded = new StatementFilter(Math.max(MIN_CAPACITY, statements.size() * 2));
+        for (String statement : statements) {
+            loaded.add(fingerprint(statement));
+        }
+        return cache(course.getId(), loaded);
+    }
+
+    private synchronized StatementFilter cached(Long courseId) {
+        return filtersByCourse.get(courseId);
+    }
+
+    private synchronized StatementFilter cache(Long courseId, StatementFilter loaded) {
+        StatementFilter current = filtersByCourse.get(courseId);
+        if (current != null) {
+            return current;
+        }
+        filtersByCourse.put(courseId, loaded);
+        entriesInUse += loaded.capacity;
+        Iterator<StatementFilter> eldest = filtersByCourse.values().iterator();
+        while (entriesInUse > maxEntries && filtersByCourse.size() > 1) {
+            entriesInUse -= eldest.next().capacity;
+            eldest.remove();
+        }
+        return loaded;
+    }
+
+    private synchronized void drop(Long courseId, StatementFilter filter) {
+        if (filtersByCourse.remove(courseId, filter)) {
+            entriesInUse -= filter.capacity;
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units of the collation key
+    static long fingerprint(String statement) {
+        String key = CollationKey.of(statement);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class StatementFilter {
+        private final int capacity;
+        private final int mask;
+        private final AtomicLongArray words;
+        private final AtomicInteger size = new AtomicInteger();
+
+        private StatementFilter(int capacity) {
+            this.capacity = capacity;
+            int bits = Integer.highestOneBit(capacity * BITS_PER_STATEMENT - 1) << 1;
+            this.mask = bits - 1;
+            this.words = new AtomicLongArray(bits / Long.SIZE);
+        }
+
+        // false once the filter holds more statements than it was sized for
+        private boolean add(long fingerprint) {
+            int hash = (int) fingerprint;
+            int step = (int) (fingerprint >>> 32) | 1;
+            for (int i = 0; i < PROBES; i++, hash += step) {
+                int bit = hash & mask;
+                long word = 1L << bit;
+                int index = bit >>> 6;
+                long current;
+                while (((current = words.get(index)) & word) == 0
+                        && !words.compareAndSet(index, current, current | word)) {
+                    Thread.onSpinWait();
+                }
+            }
+            return size.incrementAndGet() <= capacity;
+        }
+
+        private boolean mightContain(long fingerprint) {
+            int hash = (int) fingerprint;
+            int step = (int) (fingerprint >>> 32) | 1;
+            for (int i = 0; i < PROBES; i++, hash += step) {
+                int bit = hash & mask;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
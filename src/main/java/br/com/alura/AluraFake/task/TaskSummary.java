@@ -0,0 +1,7 @@
+package br.com.alura.AluraFake.task;
+
+import java.time.LocalDateTime;
+
+public record TaskSummary(Long id, String statement, Long orderKey, Type type,
+                          LocalDateTime createdAt, byte[] packedOptions, Integer optionsVersion) {
+}
@@ -0,0 +1,4 @@
+package br.com.alura.AluraFake.task;
+
+public record TasksCreatedEvent(Long courseId, int count) {
+}
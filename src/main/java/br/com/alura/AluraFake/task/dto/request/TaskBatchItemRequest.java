@@ -0,0 +1,32 @@
+package br.com.alura.AluraFake.task.dto.request;
+
+import br.com.alura.AluraFake.task.Type;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class TaskBatchItemRequest {
+
+    @NotNull
+    private Type type;
+
+    @NotBlank
+    @Size(min = 4, max = 255)
+    private String statement;
+
+    private List<OptionRequest> options;
+
+    public Type getType() { return type; }
+
+    public void setType(Type type) { this.type = type; }
+
+    public String getStatement() { return statement; }
+
+    public void setStatement(String statement) { this.statement = statement; }
+
+    public List<OptionRequest> getOptions() { return options; }
+
+    public void setOptions(List<OptionRequest> options) { this.options = options; }
+}
@@ -0,0 +1,19 @@
+package br.com.alura.AluraFake.task.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class TaskBatchRequest {
+
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<TaskBatchItemRequest> tasks;
+
+    public List<TaskBatchItemRequest> getTasks() { return tasks; }
+
+    public void setTasks(List<TaskBatchItemRequest> tasks) { this.tasks = tasks; }
+}
@@ -0,0 +1,15 @@
+package br.com.alura.AluraFake.task.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class TaskOrderRequest {
+
+    @Min(1)
+    @NotNull
+    private Integer order;
+
+    public Integer getOrder() { return order; }
+
+    public void setOrder(Integer order) { this.order = order; }
+}
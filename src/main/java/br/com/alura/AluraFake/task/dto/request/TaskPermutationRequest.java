@@ -0,0 +1,15 @@
+package br.com.alura.AluraFake.task.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class TaskPermutationRequest {
+
+    @NotEmpty
+    private List<Long> taskIds;
+
+    public List<Long> getTaskIds() { return taskIds; }
+
+    public void setTaskIds(List<Long> taskIds) { this.taskIds = taskIds; }
+}
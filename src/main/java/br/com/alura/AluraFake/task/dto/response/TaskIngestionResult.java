@@ -0,0 +1,37 @@
+package br.com.alura.AluraFake.task.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskIngestionResult {
+
+    public enum Status { CREATED, REJECTED }
+
+    private final int line;
+    private final Status status;
+    private final Long id;
+    private final Integer order;
+    private final String message;
+
+    private TaskIngestionResult(int line, Status status, Long id, Integer order, String message) {
+        this.line = line;
+        this.status = status;
+        this.id = id;
+        this.order = order;
+        this.message = message;
+    }
+
+    public static TaskIngestionResult created(int line, Long id, Integer order) {
+        return new TaskIngestionResult(line, Status.CREATED, id, order, null);
+    }
+
+    public static TaskIngestionResult rejected(int line, String message) {
+        return new TaskIngestionResult(line, Status.REJECTED, null, null, message);
+    }
+
+    public int getLine() { return line; }
+    public Status getStatus() { return status; }
+    public Long getId() { return id; }
+    public Integer getOrder() { return order; }
+    public String getMessage() { return message; }
+}
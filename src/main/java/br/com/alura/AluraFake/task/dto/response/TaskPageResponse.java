@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.task.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskPageResponse {
+
+    private final List<TaskResponse> tasks;
+    private final String nextCursor;
+
+    public TaskPageResponse(List<TaskResponse> tasks, String nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TaskResponse> getTasks() { return tasks; }
+    public String getNextCursor() { return nextCursor; }
+}
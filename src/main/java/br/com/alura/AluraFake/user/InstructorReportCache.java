@@ -0,0 +1,210 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.course.CourseCreatedEvent;
+import br.com.alura.AluraFake.course.CoursePublishedEvent;
+import br.com.alura.AluraFake.course.CourseStatsRebuiltEvent;
+import br.com.alura.AluraFake.task.TasksCreatedEvent;
+import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
+import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of instructor reports by instructor id with a time-to-live. Reports are dropped after the
+ * commit of any write that changes them: a course created for the instructor, or a publish, task
+ * insert or stats rebuild on one of the courses listed in the cached report. Rolled-back writes never
+ * evict. A load that overlaps an invalidation of its instructor or of a course it lists is returned but
+ * not cached; invalidations are only remembered while a load is in flight.
+ * <p>
+ * Metrics: {@code instructor.report.cache} counts lookups by {@code result} ({@code hit}, {@code miss}),
+ * {@code instructor.report.cache.evictions} counts removals by {@code cause} ({@code size},
+ * {@code expired}, {@code invalidated}) and {@code instructor.report.cache.size} gauges the entries.
+ */
+@Component
+public class InstructorReportCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<Long, Long> instructorByCourse = new HashMap<>();
+    // guarded by reports: invalidation sequence, and when each id was last invalidated during a load
+    private long invalidations;
+    private final TreeMap<Long, Integer> loadsInFlight = new TreeMap<>();
+    private final Map<Long, Long> invalidatedInstructors = new HashMap<>();
+    private final Map<Long, Long> invalidatedCourses = new HashMap<>();
+    private final Map<Long, CachedReport> reports;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidatedEvictions;
+
+    @Autowired
+    public InstructorReportCache(MeterRegistry meterRegistry,
+                                 @Value("${alurafake.instructor-report.cache.max-size:1000}") int maxSize,
+                                 @Value("${alurafake.instructor-report.cache.ttl:5m}") Duration ttl) {
+        this(meterRegistry, maxSize, ttl, System::nanoTime);
+    }
+
+    InstructorReportCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.reports = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedReport> eldest) {
+                if (size() <= InstructorReportCache.this.maxSize) {
+                    return false;
+                }
+                forgetCourses(eldest.getValue().report());
+                sizeEvictions.increment();
+                return true;
+            }
+        };
+        this.hits = meterRegistry.counter("instructor.report.cache", "result", "hit");
+        this.misses = meterRegistry.counter("instructor.report.cache", "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("instructor.report.cache.evictions", "cause", "size");
+        this.expiredEvictions = meterRegistry.counter("instructor.report.cache.evictions", "cause", "expired");
+        this.invalidatedEvictions = meterRegistry.counter("instructor.report.cache.evictions", "cause", "invalidated");
+        meterRegistry.gaugeMapSize("instructor.report.cache.size", Tags.empty(), reports);
+    }
+
+    public InstructorCoursesReportResponse get(Long instructorId, Supplier<InstructorCoursesReportResponse> loader) {
+        synchronized (reports) {
+            CachedReport cached = reports.get(instructorId);
+            if (cached != null) {
+                if (clock.getAsLong() - cached.expiresAt() < 0) {
+                    hits.increment();
+                    return cached.report();
+                }
+                remove(instructorId);
+                expiredEvictions.increment();
+            }
+        }
+
+        misses.increment();
+        long stamp;
+        synchronized (reports) {
+            stamp = invalidations;
+            loadsInFlight.merge(stamp, 1, Integer::sum);
+        }
+        InstructorCoursesReportResponse report = null;
+        try {
+            report = loader.get();
+            return report;
+        } finally {
+            synchronized (reports) {
+                if (report != null && !invalidatedSince(stamp, instructorId, report)) {
+                    remove(instructorId);
+                    for (InstructorCourseDTO course : report.getCourses()) {
+                        instructorByCourse.put(course.getId(), instructorId);
+                    }
+                    reports.put(instructorId, new CachedReport(report, clock.getAsLong() + ttlNanos));
+                }
+                finishLoad(stamp);
+            }
+        }
+    }
+
+    private boolean invalidatedSince(long stamp, Long instructorId, InstructorCoursesReportResponse report) {
+        if (invalidatedInstructors.getOrDefault(instructorId, stamp) > stamp) {
+            return true;
+        }
+        for (InstructorCourseDTO course : report.getCourses()) {
+            if (invalidatedCourses.getOrDefault(course.getId(), stamp) > stamp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finishLoad(long stamp) {
+        loadsInFlight.computeIfPresent(stamp, (key, loads) -> loads > 1 ? loads - 1 : null);
+        if (loadsInFlight.isEmpty()) {
+            invalidatedInstructors.clear();
+            invalidatedCourses.clear();
+            return;
+        }
+        long oldest = loadsInFlight.firstKey();
+        invalidatedInstructors.values().removeIf(invalidated -> invalidated <= oldest);
+        invalidatedCourses.values().removeIf(invalidated -> invalidated <= oldest);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCreated(CourseCreatedEvent event) {
+        invalidate(event.instructorId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoursePublished(CoursePublishedEvent event) {
+        invalidateByCourse(event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksCreated(TasksCreatedEvent event) {
+        invalidateByCourse(event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseStatsRebuilt(CourseStatsRebuiltEvent event) {
+        for (Long courseId : event.courseIds()) {
+            invalidateByCourse(courseId);
+        }
+    }
+
+    private void invalidateByCourse(Long courseId) {
+        synchronized (reports) {
+            invalidations++;
+            if (!loadsInFlight.isEmpty()) {
+                invalidatedCourses.put(courseId, invalidations);
+            }
+            Long instructorId = instructorByCourse.get(courseId);
+            if (instructorId != null && remove(instructorId)) {
+                invalidatedEvictions.increment();
+            }
+        }
+    }
+
+    private void invalidate(Long instructorId) {
+        synchronized (reports) {
+            invalidations++;
+            if (!loadsInFlight.isEmpty()) {
+                invalidatedInstructors.put(instructorId, invalidations);
+            }
+            if (remove(instructorId)) {
+                invalidatedEvictions.increment();
+            }
+        }
+    }
+
+    private boolean remove(Long instructorId) {
+        CachedReport removed = reports.remove(instructorId);
+        if (removed == null) {
+            return false;
+        }
+        forgetCourses(removed.report());
+        return true;
+    }
+
+    private void forgetCourses(InstructorCoursesReportResponse report) {
+        for (InstructorCourseDTO course : report.getCourses()) {
+            instructorByCourse.remove(course.getId());
+        }
+    }
+
+    private record CachedReport(InstructorCoursesReportResponse report, long expiresAt) {
+    }
+}
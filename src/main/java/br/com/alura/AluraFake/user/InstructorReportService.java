@@ -1,60 +1,120 @@
 package br.com.alura.AluraFake.user;
 
-import br.com.alura.AluraFake.course.Course;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStats;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
 import br.com.alura.AluraFake.course.Status;
-import br.com.alura.AluraFake.task.TaskRepository;
 import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
 import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
+import br.com.alura.AluraFake.util.FanOut;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Builds the instructor report with one query by default. With
+ * {@code alurafake.instructor-report.fan-out.enabled} the report is assembled from independent
+ * sub-queries run concurrently in a {@link FanOut}: the course list and the published total, then the
+ * task counts in chunks of course ids. At most {@code max-concurrency} sub-queries run at once across
+ * all reports, a failing one cancels the rest and the whole report gives up after {@code timeout}.
+ */
 @Service
 public class InstructorReportService {
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookups;
     private final CourseRepository courseRepository;
-    private final TaskRepository taskRepository;
+    private final CourseStatsRepository courseStatsRepository;
+    private final InstructorReportCache reportCache;
+    private final boolean fanOut;
+    private final Semaphore fanOutPermits;
+    private final int chunkSize;
+    private final Duration timeout;
 
     @Autowired
-    public InstructorReportService(UserRepository userRepository,
+    public InstructorReportService(UserLookupCache userLookups,
                                    CourseRepository courseRepository,
-                                   TaskRepository taskRepository) {
-        this.userRepository = userRepository;
+                                   CourseStatsRepository courseStatsRepository,
+                                   InstructorReportCache reportCache,
+                                   @Value("${alurafake.instructor-report.fan-out.enabled:false}") boolean fanOut,
+                                   @Value("${alurafake.instructor-report.fan-out.max-concurrency:4}") int maxConcurrency,
+                                   @Value("${alurafake.instructor-report.fan-out.chunk-size:200}") int chunkSize,
+                                   @Value("${alurafake.instructor-report.fan-out.timeout:2s}") Duration timeout) {
+        this.userLookups = userLookups;
         this.courseRepository = courseRepository;
-        this.taskRepository = taskRepository;
+        this.courseStatsRepository = courseStatsRepository;
+        this.reportCache = reportCache;
+        this.fanOut = fanOut;
+        this.fanOutPermits = new Semaphore(maxConcurrency);
+        this.chunkSize = chunkSize;
+        this.timeout = timeout;
     }
 
     public InstructorCoursesReportResponse getInstructorCoursesReport(Long instructorId) {
-        User user = validateReportRequest(instructorId);
-        InstructorCoursesRecord count = getCountInstructorCourses(user);
-        return new InstructorCoursesReportResponse(count.courseDTOs(), count.totalPublishedCourses());
+        return reportCache.get(instructorId, () -> {
+            User user = validateReportRequest(instructorId);
+            InstructorCoursesRecord count = fanOut ? fanOutInstructorCourses(user) : getCountInstructorCourses(user);
+            return new InstructorCoursesReportResponse(count.courseDTOs(), count.totalPublishedCourses());
+        });
     }
 
-    private InstructorCoursesRecord getCountInstructorCourses(User user) {
-        List<Course> courses = courseRepository.findByInstructor(user);
+    private InstructorCoursesRecord fanOutInstructorCourses(User user) {
+        try (FanOut scope = new FanOut(fanOutPermits, timeout)) {
+            Future<List<InstructorCourseDTO>> courseList = scope.fork(
+                    () -> courseRepository.findInstructorCourseList(user.getId()));
+            Future<Long> publishedTotal = scope.fork(
+                    () -> courseRepository.countByInstructorAndStatus(user.getId(), Status.PUBLISHED));
+
+            List<InstructorCourseDTO> courseDTOs = scope.get(courseList);
+            Map<Long, Long> taskCounts = new ConcurrentHashMap<>();
+            for (int from = 0; from < courseDTOs.size(); from += chunkSize) {
+                List<Long> courseIds = courseDTOs.subList(from, Math.min(from + chunkSize, courseDTOs.size()))
+                        .stream().map(InstructorCourseDTO::getId).toList();
+                scope.fork(() -> {
+                    for (CourseStats stats : courseStatsRepository.findAllById(courseIds)) {
+                        taskCounts.put(stats.getCourseId(), (long) stats.getTaskCount());
+                    }
+                    return null;
+                });
+            }
+            scope.join();
 
-        List<InstructorCourseDTO> courseDTOs = courses.stream()
-                .map(course -> {
-                    Long taskCount = taskRepository.countByCourse(course);
-                    return new InstructorCourseDTO(
-                            course.getId(),
-                            course.getTitle(),
-                            course.getStatus(),
-                            course.getPublishedAt(),
-                            taskCount
-                    );
-                })
-                .collect(Collectors.toList());
+            for (InstructorCourseDTO course : courseDTOs) {
+                course.setTaskCount(taskCounts.getOrDefault(course.getId(), 0L));
+            }
+            return new InstructorCoursesRecord(courseDTOs, scope.get(publishedTotal));
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Instructor report timed out");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Instructor report failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Instructor report interrupted");
+        }
+    }
 
-        long totalPublishedCourses = courses.stream()
-                .filter(course -> course.getStatus() == Status.PUBLISHED)
-                .count();
+    private InstructorCoursesRecord getCountInstructorCourses(User user) {
+        List<InstructorCourseDTO> courseDTOs = courseRepository.findInstructorCourses(user.getId());
+
+        long totalPublishedCourses = 0;
+        for (InstructorCourseDTO course : courseDTOs) {
+            if (course.getStatus() == Status.PUBLISHED) {
+                totalPublishedCourses++;
+            }
+        }
         return new InstructorCoursesRecord(courseDTOs, totalPublishedCourses);
     }
 
@@ -62,7 +122,7 @@ public class InstructorReportService {
     }
 
     private User validateReportRequest(Long instructorId) {
-        User user = userRepository.findById(instructorId)
+        User user = userLookups.findById(instructorId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "User not found"));
@@ -3,40 +3,70 @@ package br.com.alura.AluraFake.user;
 import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
 import br.com.alura.AluraFake.user.dto.NewUserDTO;
 import br.com.alura.AluraFake.user.dto.UserListItemDTO;
+import br.com.alura.AluraFake.user.dto.UserPageResponse;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
+import br.com.alura.AluraFake.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.http.*;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class UserController {
 
-    private final UserRepository userRepository;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final UserService userService;
+    private final UserProvisioningService provisioningService;
     private final InstructorReportService instructorReportService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserRepository userRepository, InstructorReportService instructorReportService) {
+    public UserController(UserService userService, UserProvisioningService provisioningService,
+                          InstructorReportService instructorReportService, ObjectMapper objectMapper) {
         this.instructorReportService = instructorReportService;
-        this.userRepository = userRepository;
+        this.userService = userService;
+        this.provisioningService = provisioningService;
+        this.objectMapper = objectMapper;
     }
 
-    @Transactional
     @PostMapping("/user/new")
     public ResponseEntity newStudent(@RequestBody @Valid NewUserDTO newUser) {
-        if(userRepository.existsByEmail(newUser.getEmail())) {
+        if(userService.register(newUser).isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorItemDTO("email", "Email já cadastrado no sistema"));
         }
-        User user = newUser.toModel();
-        userRepository.save(user);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
-    @GetMapping("/user/all")
-    public List<UserListItemDTO> listAllUsers() {
-        return userRepository.findAll().stream().map(UserListItemDTO::new).toList();
+    @PostMapping(value = "/user/bulk",
+            consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> provisionUsers(HttpServletRequest request) {
+        UserProvisioningService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? UserProvisioningService.Format.CSV
+                : UserProvisioningService.Format.NDJSON;
+        StreamingResponseBody body = output -> provisioningService.provision(format, request.getInputStream(), output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/user/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listAllUsers(@RequestParam(name = "role", required = false) Role role) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.<UserListItemDTO>of(objectMapper, action -> userService.forEachUser(role, action)));
+    }
+
+    @GetMapping(value = "/user/all", params = "size")
+    public UserPageResponse listUsers(@RequestParam(name = "role", required = false) Role role,
+                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                      @RequestParam(name = "size") @Min(1) @Max(500) int size) {
+        return userService.listUsers(role, cursor, size);
     }
 
     @GetMapping("/instructor/{id}/courses")
@@ -0,0 +1,84 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.util.CollationKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory set of emails known to be registered, filled by successful signups and by signups that
+ * hit {@code UC_Email}, plus the emails whose insert is still in flight. A signup for a known email is
+ * rejected without a round trip to the database, and one for an email being inserted waits for that
+ * insert instead of racing it to the constraint; an unknown email proves nothing and is left to the
+ * constraint. Keys are {@link CollationKey}s, matching the case- and accent-insensitive collation of
+ * {@code User.email}. Once {@code max-size} emails are held the index stops growing, which only costs
+ * round trips.
+ * <p>
+ * Metrics: {@code user.email.index} counts lookups by {@code result} ({@code hit}, {@code miss}) and
+ * signups that waited for an insert in flight ({@code in_flight}).
+ */
+@Component
+public class UserEmailIndex {
+
+    private final int maxSize;
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Boolean>> inserting = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter inFlight;
+
+    @Autowired
+    public UserEmailIndex(MeterRegistry meterRegistry,
+                          @Value("${alurafake.user-email-index.max-size:100000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("user.email.index", "result", "hit");
+        this.misses = meterRegistry.counter("user.email.index", "result", "miss");
+        this.inFlight = meterRegistry.counter("user.email.index", "result", "in_flight");
+    }
+
+    public boolean isTaken(String email) {
+        boolean taken = emails.contains(key(email));
+        (taken ? hits : misses).increment();
+        return taken;
+    }
+
+    public void add(String email) {
+        if (size.get() < maxSize && emails.add(key(email))) {
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Claims the email for an insert about to run. Returns null when claimed, in which case the caller
+     * must {@link #release} it; otherwise the outcome of the insert already in flight, true when it
+     * left the email registered.
+     */
+    public CompletableFuture<Boolean> claim(String email, CompletableFuture<Boolean> insert) {
+        CompletableFuture<Boolean> pending = inserting.putIfAbsent(key(email), insert);
+        if (pending != null) {
+            inFlight.increment();
+        }
+        return pending;
+    }
+
+    public void release(String email, CompletableFuture<Boolean> insert, boolean registered) {
+        if (registered) {
+            add(email);
+        }
+        inserting.remove(key(email), insert);
+        insert.complete(registered);
+    }
+
+    private static String key(String email) {
+        return CollationKey.of(email);
+    }
+}
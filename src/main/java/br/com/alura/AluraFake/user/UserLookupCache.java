@@ -0,0 +1,134 @@
+package br.com.alura.AluraFake.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through LRU cache of {@link User} by id and by email. Users have no mutators, so the cached
+ * instances are shared read-only and detached; they can be referenced by new entities but must not
+ * be changed, and nothing deletes them. Only found users are cached, so a signup is never hidden by a
+ * cached miss. Writers report created users with {@link #recordCreated}, applied after commit; a load
+ * that overlaps one is returned but not cached.
+ * <p>
+ * Metrics: {@code user.lookup.cache} counts lookups by {@code result} ({@code hit}, {@code miss}),
+ * {@code user.lookup.cache.evictions} counts size evictions and {@code user.lookup.cache.size}
+ * gauges the entries.
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final AtomicLong writes = new AtomicLong();
+    private final Map<String, Long> idsByEmail = new HashMap<>();
+    private final Map<Long, User> users;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public UserLookupCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                           @Value("${alurafake.user-lookup.cache.max-size:1024}") int maxSize) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, User> eldest) {
+                if (size() <= UserLookupCache.this.maxSize) {
+                    return false;
+                }
+                idsByEmail.remove(emailKey(eldest.getValue().getEmail()));
+                evictions.increment();
+                return true;
+            }
+        };
+        this.hits = meterRegistry.counter("user.lookup.cache", "result", "hit");
+        this.misses = meterRegistry.counter("user.lookup.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("user.lookup.cache.evictions");
+        meterRegistry.gaugeMapSize("user.lookup.cache.size", Tags.empty(), users);
+    }
+
+    public Optional<User> findById(Long id) {
+        synchronized (users) {
+            User cached = users.get(id);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+        return load(() -> userRepository.findById(id));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        synchronized (users) {
+            Long id = idsByEmail.get(emailKey(email));
+            User cached = id == null ? null : users.get(id);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+        return load(() -> userRepository.findByEmail(email));
+    }
+
+    public void recordCreated(User user) {
+        afterCommit(() -> put(user));
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        misses.increment();
+        long stamp = writes.get();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> {
+            synchronized (users) {
+                if (writes.get() == stamp) {
+                    put(user);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    private void put(User user) {
+        users.put(user.getId(), user);
+        idsByEmail.put(emailKey(user.getEmail()), user.getId());
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            synchronized (users) {
+                writes.incrementAndGet();
+                change.run();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    // The email column uses a case-insensitive collation
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
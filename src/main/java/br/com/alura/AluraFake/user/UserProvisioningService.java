@@ -0,0 +1,255 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.user.dto.NewUserDTO;
+import br.com.alura.AluraFake.user.dto.UserProvisioningResult;
+import br.com.alura.AluraFake.util.BoundedLineReader;
+import br.com.alura.AluraFake.util.CollationKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Creates users from a CSV (header row naming {@code name}, {@code email}, {@code role}) or NDJSON upload
+ * in fixed-size chunks, each chunk deduplicated with one email lookup and inserted with one JDBC batch
+ * in its own transaction. Repeated emails are rejected in memory across the whole upload; only one chunk
+ * of records and results is held otherwise, and lines longer than {@value #MAX_LINE_LENGTH} characters are
+ * rejected without being buffered. Results are written per record as NDJSON.
+ * <p>
+ * Only identical emails are rejected without asking the database. Rows whose {@link CollationKey} alone
+ * matches a taken or earlier email are inserted one by one after their chunk, so {@code UC_Email}
+ * decides.
+ */
+@Service
+public class UserProvisioningService {
+
+    public enum Format { CSV, NDJSON }
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_LINE_LENGTH = 4 * 1024;
+    static final String EMAIL_TAKEN = "Email já cadastrado no sistema";
+    static final String EMAIL_REPEATED = "Email already listed in this upload";
+    static final String INSERT_USER = "INSERT INTO User (createdAt, name, email, role, password) VALUES (?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final UserEmailIndex emailIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader itemReader;
+
+    @Autowired
+    public UserProvisioningService(UserRepository userRepository, UserEmailIndex emailIndex, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager, Validator validator,
+                                   ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.emailIndex = emailIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(NewUserDTO.class);
+    }
+
+    public void provision(Format format, InputStream input, OutputStream output) throws IOException {
+        BoundedLineReader lines = new BoundedLineReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                MAX_LINE_LENGTH);
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingUser> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<String> header = null;
+        int lineNumber = 0;
+        while (lines.next()) {
+            lineNumber++;
+            if (lines.tooLong()) {
+                chunk.add(PendingUser.rejected(lineNumber, null, "User record exceeds " + MAX_LINE_LENGTH + " characters"));
+            } else if (lines.line().isBlank()) {
+                continue;
+            } else if (format == Format.CSV && header == null) {
+                header = splitCsv(lines.line());
+                continue;
+            } else {
+                chunk.add(parse(lineNumber, lines.line(), header, seenEmails));
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                flushChunk(chunk, output);
+            }
+        }
+        flushChunk(chunk, output);
+    }
+
+    private PendingUser parse(int lineNumber, String line, List<String> csvHeader, Set<String> seenEmails) {
+        NewUserDTO user;
+        try {
+            user = csvHeader == null ? itemReader.readValue(line) : fromCsv(csvHeader, splitCsv(line));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return PendingUser.rejected(lineNumber, null, "Malformed user record");
+        }
+
+        Set<ConstraintViolation<NewUserDTO>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<NewUserDTO> violation = violations.iterator().next();
+            return PendingUser.rejected(lineNumber, user.getEmail(),
+                    violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (!seenEmails.add(user.getEmail())) {
+            return PendingUser.rejected(lineNumber, user.getEmail(), EMAIL_REPEATED);
+        }
+        return new PendingUser(lineNumber, user, user.getEmail(), null);
+    }
+
+    private NewUserDTO fromCsv(List<String> header, List<String> values) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).strip();
+            fields.put(header.get(i).strip(), value.isEmpty() ? null : value);
+        }
+        return objectMapper.convertValue(fields, NewUserDTO.class);
+    }
+
+    private void flushChunk(List<PendingUser> chunk, OutputStream output) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<UserProvisioningResult> results;
+        List<PendingUser> deferred = new ArrayList<>();
+        try {
+            results = transactionTemplate.execute(status -> persistChunk(chunk, deferred));
+        } catch (DuplicateKeyException e) {
+            // a signup committed between the lookup and the batch; the retried lookup sees it
+            deferred.clear();
+            try {
+                results = transactionTemplate.execute(status -> persistChunk(chunk, deferred));
+            } catch (DuplicateKeyException again) {
+                // UC_Email still disagrees with the lookup; settle the chunk row by row
+                deferred.clear();
+                results = persistEach(chunk);
+            }
+        }
+        if (!deferred.isEmpty()) {
+            results.addAll(persistEach(deferred));
+            results.sort(Comparator.comparingInt(UserProvisioningResult::getLine));
+        }
+        for (UserProvisioningResult result : results) {
+            if (result.getStatus() == UserProvisioningResult.Status.CREATED || EMAIL_TAKEN.equals(result.getMessage())) {
+                emailIndex.add(result.getEmail());
+            }
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+        chunk.clear();
+    }
+
+    private List<UserProvisioningResult> persistEach(List<PendingUser> chunk) {
+        List<UserProvisioningResult> results = new ArrayList<>(chunk.size());
+        for (PendingUser record : chunk) {
+            try {
+                results.addAll(transactionTemplate.execute(status -> persistChunk(List.of(record), null)));
+            } catch (DuplicateKeyException e) {
+                results.add(UserProvisioningResult.rejected(record.line(), record.user().getEmail(), EMAIL_TAKEN));
+            }
+        }
+        return results;
+    }
+
+    // deferred collects rows only the collation keys match to a taken email; null inserts them
+    private List<UserProvisioningResult> persistChunk(List<PendingUser> chunk, List<PendingUser> deferred) {
+        List<String> emails = new ArrayList<>(chunk.size());
+        for (PendingUser record : chunk) {
+            if (record.user() != null) {
+                emails.add(record.user().getEmail());
+            }
+        }
+        // the IN lookup matches under UC_Email's collation and returns the stored spelling
+        Set<String> taken = new HashSet<>();
+        Set<String> takenKeys = new HashSet<>();
+        if (!emails.isEmpty()) {
+            for (String email : userRepository.findEmailsIn(emails)) {
+                taken.add(email);
+                takenKeys.add(emailKey(email));
+            }
+        }
+
+        List<User> users = new ArrayList<>(chunk.size());
+        List<UserProvisioningResult> results = new ArrayList<>(chunk.size());
+        for (PendingUser record : chunk) {
+            if (record.user() == null) {
+                results.add(UserProvisioningResult.rejected(record.line(), record.email(), record.error()));
+            } else if (taken.contains(record.user().getEmail())) {
+                results.add(UserProvisioningResult.rejected(record.line(), record.user().getEmail(), EMAIL_TAKEN));
+            } else if (!takenKeys.add(emailKey(record.user().getEmail())) && deferred != null) {
+                deferred.add(record);
+            } else {
+                users.add(record.user().toModel());
+                results.add(UserProvisioningResult.created(record.line(), record.user().getEmail()));
+            }
+        }
+        if (!users.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, users, CHUNK_SIZE, (statement, user) -> {
+                statement.setObject(1, user.getCreatedAt());
+                statement.setString(2, user.getName());
+                statement.setString(3, user.getEmail());
+                statement.setString(4, user.getRole().name());
+                statement.setString(5, user.getPassword());
+            });
+        }
+        return results;
+    }
+
+    // RFC 4180 fields on a single line: commas inside double quotes, "" for a literal quote
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    // UC_Email is utf8mb4_unicode_ci: emails differing only by case or accent collide
+    private static String emailKey(String email) {
+        return CollationKey.of(email);
+    }
+
+    private record PendingUser(int line, NewUserDTO user, String email, String error) {
+
+        static PendingUser rejected(int line, String email, String error) {
+            return new PendingUser(line, null, email, error);
+        }
+    }
+}
@@ -1,13 +1,44 @@
 package br.com.alura.AluraFake.user;
 
 
+import br.com.alura.AluraFake.user.dto.UserListItemDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    String LIST_ITEM_PROJECTION = "SELECT new br.com.alura.AluraFake.user.dto.UserListItemDTO(" +
+            "u.id, u.name, u.email, u.role) FROM User u ";
+
+    @Query(LIST_ITEM_PROJECTION + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserListItemDTO> findListItemsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(LIST_ITEM_PROJECTION + "WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<UserListItemDTO> findListItemsByRoleAfter(@Param("role") Role role, @Param("afterId") Long afterId, Limit limit);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(LIST_ITEM_PROJECTION + "ORDER BY u.id")
+    Stream<UserListItemDTO> streamListItems();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(LIST_ITEM_PROJECTION + "WHERE u.role = :role ORDER BY u.id")
+    Stream<UserListItemDTO> streamListItemsByRole(@Param("role") Role role);
 }
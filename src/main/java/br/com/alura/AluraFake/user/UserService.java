@@ -0,0 +1,114 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.user.dto.NewUserDTO;
+import br.com.alura.AluraFake.user.dto.UserListItemDTO;
+import br.com.alura.AluraFake.user.dto.UserPageResponse;
+import br.com.alura.AluraFake.util.IdCursor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.function.ThrowingConsumer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+@Service
+public class UserService {
+
+    static final String EMAIL_CONSTRAINT = "UC_Email";
+
+    private final UserRepository userRepository;
+    private final UserEmailIndex emailIndex;
+    private final UserLookupCache userLookups;
+
+    @Autowired
+    public UserService(UserRepository userRepository, UserEmailIndex emailIndex, UserLookupCache userLookups) {
+        this.userRepository = userRepository;
+        this.emailIndex = emailIndex;
+        this.userLookups = userLookups;
+    }
+
+    /**
+     * Inserts the user and lets {@code UC_Email} decide uniqueness, so concurrent signups for the same
+     * email cannot both pass a check-then-insert. Not transactional on purpose: the insert commits in
+     * the repository call and a violation surfaces here instead of poisoning an outer transaction.
+     * A signup for an email whose insert is already in flight waits for it and only inserts itself
+     * when that insert failed for another reason.
+     *
+     * @return the created user, or empty when the email is already registered
+     */
+    public Optional<User> register(NewUserDTO newUser) {
+        String email = newUser.getEmail();
+        if (emailIndex.isTaken(email)) {
+            return Optional.empty();
+        }
+        CompletableFuture<Boolean> insert = new CompletableFuture<>();
+        CompletableFuture<Boolean> pending = emailIndex.claim(email, insert);
+        if (pending != null && pending.join()) {
+            return Optional.empty();
+        }
+
+        boolean registered = false;
+        try {
+            User user = newUser.toModel();
+            try {
+                userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                if (!isEmailViolation(e)) {
+                    throw e;
+                }
+                registered = true;
+                return Optional.empty();
+            }
+            registered = true;
+            userLookups.recordCreated(user);
+            return Optional.of(user);
+        } finally {
+            if (pending == null) {
+                emailIndex.release(email, insert, registered);
+            } else if (registered) {
+                emailIndex.add(email);
+            }
+        }
+    }
+
+    static boolean isEmailViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String detail = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (detail != null && detail.toUpperCase(Locale.ROOT).contains(EMAIL_CONSTRAINT.toUpperCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public UserPageResponse listUsers(Role role, String cursor, int size) {
+        long afterId = cursor == null ? 0L : IdCursor.decode(cursor);
+        List<UserListItemDTO> users = role == null
+                ? userRepository.findListItemsAfter(afterId, Limit.of(size + 1))
+                : userRepository.findListItemsByRoleAfter(role, afterId, Limit.of(size + 1));
+        boolean hasNext = users.size() > size;
+        if (hasNext) {
+            users = users.subList(0, size);
+        }
+        String nextCursor = hasNext ? IdCursor.encode(users.get(users.size() - 1).getId()) : null;
+        return new UserPageResponse(users, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachUser(Role role, ThrowingConsumer<UserListItemDTO> action) {
+        try (Stream<UserListItemDTO> users = role == null
+                ? userRepository.streamListItems()
+                : userRepository.streamListItemsByRole(role)) {
+            users.forEach(action);
+        }
+    }
+}
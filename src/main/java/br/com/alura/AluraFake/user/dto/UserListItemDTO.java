@@ -7,16 +7,29 @@ import java.io.Serializable;
 
 public class UserListItemDTO implements Serializable {
 
+    private Long id;
     private String name;
     private String email;
     private Role role;
 
     public UserListItemDTO(User user) {
+        this.id = user.getId();
         this.name = user.getName();
         this.email = user.getEmail();
         this.role = user.getRole();
     }
 
+    public UserListItemDTO(Long id, String name, String email, Role role) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserPageResponse {
+
+    private final List<UserListItemDTO> users;
+    private final String nextCursor;
+
+    public UserPageResponse(List<UserListItemDTO> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserListItemDTO> getUsers() { return users; }
+    public String getNextCursor() { return nextCursor; }
+}
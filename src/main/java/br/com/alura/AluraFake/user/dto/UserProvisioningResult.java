@@ -0,0 +1,34 @@
+package br.com.alura.AluraFake.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserProvisioningResult {
+
+    public enum Status { CREATED, REJECTED }
+
+    private final int line;
+    private final Status status;
+    private final String email;
+    private final String message;
+
+    private UserProvisioningResult(int line, Status status, String email, String message) {
+        this.line = line;
+        this.status = status;
+        this.email = email;
+        this.message = message;
+    }
+
+    public static UserProvisioningResult created(int line, String email) {
+        return new UserProvisioningResult(line, Status.CREATED, email, null);
+    }
+
+    public static UserProvisioningResult rejected(int line, String email, String message) {
+        return new UserProvisioningResult(line, Status.REJECTED, email, message);
+    }
+
+    public int getLine() { return line; }
+    public Status getStatus() { return status; }
+    public String getEmail() { return email; }
+    public String getMessage() { return message; }
+}
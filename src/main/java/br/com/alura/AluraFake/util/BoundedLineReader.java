@@ -0,0 +1,75 @@
+package br.com.alura.AluraFake.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Line reader for streamed uploads that never buffers more than {@code maxLength} characters of a line:
+ * the rest of a longer line is skipped and the line is reported as {@link #tooLong()}. Lines end at
+ * {@code \n}, {@code \r} or {@code \r\n}, like {@link java.io.BufferedReader#readLine()}.
+ */
+public final class BoundedLineReader {
+
+    private final Reader reader;
+    private final int maxLength;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private boolean tooLong;
+
+    public BoundedLineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Advances to the next line; false at the end of the input.
+     */
+    public boolean next() throws IOException {
+        line.setLength(0);
+        tooLong = false;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                position = 0;
+                if (limit == 0) {
+                    return read;
+                }
+            }
+            char c = buffer[position++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            read = true;
+            if (c == '\n') {
+                return true;
+            }
+            if (c == '\r') {
+                skipLineFeed = true;
+                return true;
+            }
+            if (line.length() < maxLength) {
+                line.append(c);
+            } else {
+                tooLong = true;
+            }
+        }
+    }
+
+    /**
+     * The current line without its terminator, or null when it was {@link #tooLong()}.
+     */
+    public String line() {
+        return tooLong ? null : line.toString();
+    }
+
+    public boolean tooLong() {
+        return tooLong;
+    }
+}
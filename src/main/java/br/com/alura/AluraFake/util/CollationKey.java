@@ -0,0 +1,26 @@
+package br.com.alura.AluraFake.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory comparison key for columns under {@code utf8mb4_unicode_ci}, the collation of every unique
+ * key in the schema: case, accents and trailing spaces are ignored, so two values with the same key
+ * probably collide on insert. It approximates the collation rather than reproducing it, so it only picks
+ * out values to hand to the constraint; a key match alone never rejects a value.
+ */
+public final class CollationKey {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TRAILING_SPACES = Pattern.compile(" +$");
+
+    private CollationKey() {
+    }
+
+    public static String of(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String unaccented = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return TRAILING_SPACES.matcher(unaccented).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
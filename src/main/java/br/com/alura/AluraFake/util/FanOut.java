@@ -0,0 +1,91 @@
+package br.com.alura.AluraFake.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs independent sub-tasks on virtual threads as one unit, with the semantics of
+ * {@code StructuredTaskScope.ShutdownOnFailure} (still a preview API in Java 21): the first failure
+ * cancels the siblings, every wait is bounded by a single deadline and {@link #close} cancels what is
+ * still running and waits for it, so no sub-task outlives the scope. Sub-tasks take a permit from the
+ * given semaphore while they run, which bounds concurrency across all scopes sharing it; a sub-task
+ * cancelled while still waiting for its permit never held one and releases nothing.
+ */
+public final class FanOut implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("fan-out-", 0).factory());
+    private final List<Future<?>> forked = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private final Semaphore permits;
+    private final long deadline;
+
+    public FanOut(Semaphore permits, Duration timeout) {
+        this.permits = permits;
+        this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+
+    public <T> Future<T> fork(Callable<T> task) {
+        // executed rather than submitted: a submitted future counts as complete for executor.close()
+        // as soon as it is cancelled, while its body may still be running and holding a permit
+        FutureTask<T> future = new FutureTask<>(() -> {
+            // outside the try: an interrupt while queued must not release a permit it never got
+            permits.acquire();
+            try {
+                return task.call();
+            } catch (Throwable e) {
+                // once the scope cancels, sub-tasks fail because of it, not the other way around
+                if (!cancelled && failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            } finally {
+                permits.release();
+            }
+        });
+        forked.add(future);
+        executor.execute(future);
+        if (cancelled) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for one sub-task until the deadline. A sub-task cancelled because a sibling failed reports
+     * the sibling's failure as the cause.
+     */
+    public <T> T get(Future<T> future) throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelAll();
+            throw e;
+        } catch (CancellationException | ExecutionException e) {
+            Throwable cause = failure.get();
+            throw new ExecutionException(cause != null ? cause : e);
+        }
+    }
+
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        for (Future<?> future : forked) {
+            get(future);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        cancelled = true;
+        for (Future<?> future : forked) {
+            future.cancel(true);
+        }
+    }
+}
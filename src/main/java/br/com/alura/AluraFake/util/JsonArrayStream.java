@@ -0,0 +1,29 @@
+package br.com.alura.AluraFake.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.function.ThrowingConsumer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Response body streaming a JSON array element by element. The closing bracket is written only after the
+ * last element: the status is already sent when a stream fails midway, so the truncated body is left as
+ * malformed JSON instead of a well-formed partial list.
+ */
+public final class JsonArrayStream {
+
+    private JsonArrayStream() {
+    }
+
+    public static <T> StreamingResponseBody of(ObjectMapper objectMapper,
+                                               ThrowingConsumer<ThrowingConsumer<T>> elements) {
+        return output -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                json.writeStartArray();
+                elements.accept(json::writeObject);
+                json.writeEndArray();
+            }
+        };
+    }
+}
@@ -1,12 +1,12 @@
 package br.com.alura.AluraFake.util;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class PasswordGeneration{
 
+    // shared per thread instead of a new Random per call; bulk provisioning generates thousands in a row
     public static String generatePassword() {
-        Random random = new Random();
-        int password = 100000 + random.nextInt(900000);
+        int password = 100000 + ThreadLocalRandom.current().nextInt(900000);
         return String.valueOf(password);
     }
 }
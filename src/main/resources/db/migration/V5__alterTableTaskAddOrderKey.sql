@@ -0,0 +1,11 @@
+ALTER TABLE Task
+ADD COLUMN orderKey BIGINT DEFAULT NULL
+AFTER `order`;
+
+UPDATE Task SET orderKey = `order` * 1048576;
+
+ALTER TABLE Task
+MODIFY COLUMN orderKey BIGINT NOT NULL,
+DROP INDEX uk_task_course_order,
+DROP COLUMN `order`,
+ADD CONSTRAINT uk_task_course_order_key UNIQUE (course_id, orderKey);
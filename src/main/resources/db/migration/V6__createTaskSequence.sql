@@ -0,0 +1,5 @@
+CREATE TABLE Task_SEQ (
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO Task_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM Task;
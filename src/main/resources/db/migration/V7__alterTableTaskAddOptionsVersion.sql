@@ -0,0 +1,5 @@
+ALTER TABLE Task
+ADD COLUMN optionsVersion TINYINT DEFAULT NULL
+AFTER options;
+
+UPDATE Task SET optionsVersion = 1 WHERE options IS NOT NULL;
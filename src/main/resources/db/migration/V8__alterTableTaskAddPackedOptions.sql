@@ -0,0 +1,29 @@
+ALTER TABLE Task
+ADD COLUMN packedOptions VARBINARY(2048) DEFAULT NULL
+AFTER options;
+
+SET SESSION group_concat_max_len = 4096;
+
+UPDATE Task t
+JOIN (
+    SELECT src.id,
+           CONCAT(
+               CHAR(COUNT(*) USING binary),
+               CHAR(SUM(IF(o.isCorrect, 1 << (o.idx - 1), 0)) USING binary),
+               GROUP_CONCAT(
+                   CONCAT(CHAR(LENGTH(o.optionText) >> 8, LENGTH(o.optionText) & 255 USING binary),
+                          CAST(o.optionText AS BINARY))
+                   ORDER BY o.idx SEPARATOR '')
+           ) AS packed
+    FROM Task src,
+         JSON_TABLE(src.options, '$[*]' COLUMNS (
+             idx FOR ORDINALITY,
+             optionText VARCHAR(255) PATH '$.option',
+             isCorrect BOOLEAN PATH '$.isCorrect'
+         )) o
+    WHERE src.options IS NOT NULL
+    GROUP BY src.id
+) converted ON converted.id = t.id
+SET t.packedOptions = converted.packed,
+    t.optionsVersion = 2,
+    t.options = NULL;
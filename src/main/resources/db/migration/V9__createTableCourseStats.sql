@@ -0,0 +1,22 @@
+CREATE TABLE CourseStats (
+    course_id BIGINT NOT NULL,
+    taskCount INT NOT NULL DEFAULT 0,
+    maxOrder INT NOT NULL DEFAULT 0,
+    openTextCount INT NOT NULL DEFAULT 0,
+    singleChoiceCount INT NOT NULL DEFAULT 0,
+    multipleChoiceCount INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (course_id),
+    FOREIGN KEY (course_id) REFERENCES Course(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci ROW_FORMAT=DYNAMIC;
+
+INSERT INTO CourseStats (course_id, taskCount, maxOrder, openTextCount, singleChoiceCount, multipleChoiceCount)
+SELECT c.id,
+       COUNT(t.id),
+       COUNT(DISTINCT t.orderKey),
+       COALESCE(SUM(t.type = 'OPEN_TEXT'), 0),
+       COALESCE(SUM(t.type = 'SINGLE_CHOICE'), 0),
+       COALESCE(SUM(t.type = 'MULTIPLE_CHOICE'), 0)
+FROM Course c
+LEFT JOIN Task t ON t.course_id = c.id
+GROUP BY c.id;
@@ -0,0 +1,126 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.task.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CourseAuthoringStateCacheTest {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final CourseAuthoringStateCache cache = new CourseAuthoringStateCache(courseRepository, new SimpleMeterRegistry(), 16);
+
+    @Test
+    void get_shouldLoadStateOnceAndServeLaterReadsFromMemory() {
+        when(courseRepository.findAuthoringState(1L))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 2, 2, 1)));
+
+        cache.get(1L);
+        Optional<CourseAuthoringState> state = cache.get(1L);
+
+        assertThat(state).contains(new CourseAuthoringState(Status.BUILDING, 2, 2, 1));
+        verify(courseRepository, times(1)).findAuthoringState(1L);
+    }
+
+    @Test
+    void recordTasksAdded_shouldUpdateCachedStateIncrementally() {
+        when(courseRepository.findAuthoringState(1L))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 1, 1, 1)));
+        cache.get(1L);
+
+        cache.recordTaskAdded(1L, Type.SINGLE_CHOICE);
+        cache.recordTasksAdded(1L, List.of(Type.MULTIPLE_CHOICE, Type.OPEN_TEXT));
+
+        CourseAuthoringState state = cache.get(1L).orElseThrow();
+        assertThat(state.maxOrder()).isEqualTo(4);
+        assertThat(state.taskCount()).isEqualTo(4);
+        assertThat(state.hasAllTypes()).isTrue();
+        assertThat(state.isOrderContinuous()).isTrue();
+    }
+
+    @Test
+    void recordStatus_shouldUpdateCachedStatus() {
+        when(courseRepository.findAuthoringState(1L))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 3, 3, 7)));
+        cache.get(1L);
+
+        cache.recordStatus(1L, Status.PUBLISHED);
+
+        assertThat(cache.get(1L).orElseThrow().status()).isEqualTo(Status.PUBLISHED);
+    }
+
+    @Test
+    void onStatsRebuilt_shouldReloadRepairedCourses() {
+        when(courseRepository.findAuthoringState(1L))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 5, 5, 7)))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 3, 3, 7)));
+        cache.get(1L);
+
+        cache.onStatsRebuilt(new CourseStatsRebuiltEvent(List.of(1L)));
+
+        assertThat(cache.get(1L).orElseThrow().taskCount()).isEqualTo(3);
+        verify(courseRepository, times(2)).findAuthoringState(1L);
+    }
+
+    @Test
+    void get_shouldNotCacheStateLoadedWhileAWriteWasApplied() {
+        when(courseRepository.findAuthoringState(1L)).thenAnswer(invocation -> {
+            cache.recordTaskAdded(2L, Type.OPEN_TEXT);
+            return Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0));
+        });
+
+        cache.get(1L);
+        cache.get(1L);
+
+        verify(courseRepository, times(2)).findAuthoringState(1L);
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedCourseBeyondCapacity() {
+        when(courseRepository.findAuthoringState(anyLong()))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+
+        for (long id = 1; id <= 16 + 1; id++) {
+            cache.get(id);
+        }
+        cache.get(1L);
+
+        verify(courseRepository, times(2)).findAuthoringState(1L);
+    }
+
+    @Test
+    void evict_shouldReloadTheCourseOnTheNextLookup() {
+        when(courseRepository.findAuthoringState(1L))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 2, 2, 1)))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.PUBLISHED, 2, 2, 1)));
+
+        cache.get(1L);
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).contains(new CourseAuthoringState(Status.PUBLISHED, 2, 2, 1));
+        verify(courseRepository, times(2)).findAuthoringState(1L);
+    }
+
+    @Test
+    void getAll_shouldLoadOnlyMissingCoursesInOneQuery() {
+        when(courseRepository.findAuthoringState(1L))
+                .thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 1, 1, 1)));
+        when(courseRepository.findAuthoringStates(List.of(2L, 3L)))
+                .thenReturn(List.of(new CourseAuthoringStateRow(2L, Status.PUBLISHED, 3, 3, 7)));
+        cache.get(1L);
+
+        Map<Long, CourseAuthoringState> states = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(states).containsOnlyKeys(1L, 2L);
+        assertThat(states.get(2L).status()).isEqualTo(Status.PUBLISHED);
+        assertThat(cache.get(2L)).isPresent();
+        verify(courseRepository, times(1)).findAuthoringStates(anyCollection());
+        verify(courseRepository, never()).findAuthoringState(2L);
+    }
+}
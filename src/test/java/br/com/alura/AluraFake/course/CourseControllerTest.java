@@ -1,7 +1,10 @@
 package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.course.dto.CourseListItemDTO;
+import br.com.alura.AluraFake.course.dto.CoursePageResponse;
+import br.com.alura.AluraFake.course.dto.CoursePublishCheckResponse;
 import br.com.alura.AluraFake.course.dto.CourseResponse;
+import br.com.alura.AluraFake.course.dto.InstructorSummary;
 import br.com.alura.AluraFake.course.dto.NewCourseDTO;
 import br.com.alura.AluraFake.user.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +15,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.function.ThrowingConsumer;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
@@ -78,18 +83,22 @@ class CourseControllerTest {
 
     @Test
     void listAllCourses__should_list_all_courses() throws Exception {
-        User paulo = new User("Paulo", "paulo@alua.com.br", Role.INSTRUCTOR);
-
         CourseListItemDTO java = new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, null);
         CourseListItemDTO hibernate = new CourseListItemDTO(2L, "Hibernate", "Curso de hibernate", Status.PUBLISHED, LocalDateTime.now());
         CourseListItemDTO spring = new CourseListItemDTO(3L, "Spring", "Curso de spring", Status.BUILDING, null);
 
-        List<CourseListItemDTO> courses = Arrays.asList(java, hibernate, spring);
-
-        when(courseService.getAllCourses()).thenReturn(courses);
+        doAnswer(invocation -> {
+            ThrowingConsumer<CourseListItemDTO> action = invocation.getArgument(0);
+            List.of(java, hibernate, spring).forEach(action);
+            return null;
+        }).when(courseService).forEachCourse(any());
 
-        mockMvc.perform(get("/course/all")
+        MvcResult result = mockMvc.perform(get("/course/all")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Java"))
                 .andExpect(jsonPath("$[0].description").value("Curso de java"))
@@ -99,12 +108,33 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[2].description").value("Curso de spring"));
     }
 
+    @Test
+    void listAllCourses__should_return_page_when_size_is_given() throws Exception {
+        CourseListItemDTO java = new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING, null);
+        when(courseService.listCourses("MQ", 1)).thenReturn(new CoursePageResponse(List.of(java), "Mg"));
+
+        mockMvc.perform(get("/course/all")
+                        .param("cursor", "MQ")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses[0].title").value("Java"))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"));
+    }
+
+    @Test
+    void listAllCourses__should_return_bad_request_when_page_size_is_too_large() throws Exception {
+        mockMvc.perform(get("/course/all")
+                        .param("size", "501"))
+                .andExpect(status().isBadRequest());
+
+        verify(courseService, never()).listCourses(any(), anyInt());
+    }
 
     @Test
     void publishCourse_shouldReturnOkWhenSuccessful() throws Exception {
         Long courseId = 42L;
 
-        User instructor = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
+        InstructorSummary instructor = new InstructorSummary(7L, "Paulo", "paulo@alura.com.br");
         CourseResponse mockResponse = new CourseResponse(
                 courseId, "Java Avançado", "Curso de Java Avançado",
                 instructor, Status.PUBLISHED,
@@ -119,7 +149,9 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$.id").value(42))
                 .andExpect(jsonPath("$.title").value("Java Avançado"))
                 .andExpect(jsonPath("$.status").value("PUBLISHED"))
-                .andExpect(jsonPath("$.publishedAt").exists());
+                .andExpect(jsonPath("$.publishedAt").exists())
+                .andExpect(jsonPath("$.instructor.name").value("Paulo"))
+                .andExpect(jsonPath("$.instructor.password").doesNotExist());
 
         verify(courseService, times(1)).publishCourse(courseId);
     }
@@ -178,4 +210,17 @@ class CourseControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void checkPublishable_shouldReturnOneResultPerCourse() throws Exception {
+        when(courseService.checkPublishable(List.of(1L, 2L))).thenReturn(List.of(
+                new CoursePublishCheckResponse(1L, true, null),
+                new CoursePublishCheckResponse(2L, false, "Course not found")));
+
+        mockMvc.perform(get("/course/publish/check").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].publishable").value(true))
+                .andExpect(jsonPath("$[0].reason").doesNotExist())
+                .andExpect(jsonPath("$[1].reason").value("Course not found"));
+    }
+}
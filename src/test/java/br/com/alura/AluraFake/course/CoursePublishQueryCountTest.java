@@ -0,0 +1,105 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.course.dto.CourseResponse;
+import br.com.alura.AluraFake.task.Task;
+import br.com.alura.AluraFake.task.TaskRepository;
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.user.Role;
+import br.com.alura.AluraFake.user.User;
+import br.com.alura.AluraFake.user.UserLookupCache;
+import br.com.alura.AluraFake.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({CourseService.class, CourseAuthoringStateCache.class, UserLookupCache.class, SimpleMeterRegistry.class})
+class CoursePublishQueryCountTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CourseStatsRepository courseStatsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private User instructor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        instructor = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+    }
+
+    private Course courseWithAllTaskTypes(String title) {
+        Course course = courseRepository.save(new Course(title, "Curso de " + title, instructor));
+        Type[] types = Type.values();
+        for (int i = 0; i < types.length; i++) {
+            Task task = new Task();
+            task.setCourse(course);
+            task.setStatement(title + " atividade " + i);
+            task.setOrderKey((i + 1L) << 20);
+            task.setType(types[i]);
+            taskRepository.save(task);
+        }
+        courseStatsRepository.recordTasks(course.getId(), List.of(types));
+        return course;
+    }
+
+    @Test
+    void publishCourse_shouldValidateWithOneAggregateStatement() {
+        Course course = courseWithAllTaskTypes("Java");
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        CourseResponse response = courseService.publishCourse(course.getId());
+        entityManager.flush();
+
+        // authoring state aggregate, course with instructor columns, status update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        assertThat(response.getInstructor().email()).isEqualTo("paulo@alura.com.br");
+    }
+
+    @Test
+    void checkPublishable_shouldValidateManyCoursesInOneStatement() {
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            courseIds.add(courseWithAllTaskTypes("Curso " + i).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        assertThat(courseService.checkPublishable(courseIds))
+                .allMatch(check -> check.isPublishable());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
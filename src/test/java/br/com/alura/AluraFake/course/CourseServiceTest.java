@@ -1,16 +1,22 @@
 package br.com.alura.AluraFake.course;
 
+import br.com.alura.AluraFake.course.dto.CourseListItemDTO;
+import br.com.alura.AluraFake.course.dto.CoursePageResponse;
+import br.com.alura.AluraFake.course.dto.CoursePublishCheckResponse;
 import br.com.alura.AluraFake.course.dto.CourseResponse;
-import br.com.alura.AluraFake.task.TaskRepository;
+import br.com.alura.AluraFake.course.dto.InstructorSummary;
 import br.com.alura.AluraFake.user.Role;
 import br.com.alura.AluraFake.user.User;
-import br.com.alura.AluraFake.user.UserRepository;
+import br.com.alura.AluraFake.user.UserLookupCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -27,10 +33,10 @@ public class CourseServiceTest {
     private CourseRepository courseRepository;
 
     @MockBean
-    private TaskRepository taskRepository;
+    private CourseAuthoringStateCache authoringStates;
 
     @MockBean
-    private UserRepository userRepository;
+    private UserLookupCache userLookups;
 
     @Test
     void publishCourse_shouldPublishCourseWhenAllConditionsAreMet() {
@@ -39,10 +45,10 @@ public class CourseServiceTest {
         User instructor = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
         Course course = new Course("Java", "Curso de Java", instructor);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(taskRepository.countDistinctTypeByCourse(course)).thenReturn(3L);
-        when(taskRepository.countByCourse(course)).thenReturn(5L);
-        when(taskRepository.findMaxOrderByCourse(course)).thenReturn(Optional.of(5));
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 5, 5, 7)));
         when(courseRepository.save(course)).thenReturn(course);
 
         CourseResponse response = courseService.publishCourse(courseId);
@@ -51,14 +57,16 @@ public class CourseServiceTest {
         assertThat(response.getTitle()).isEqualTo("Java");
         assertThat(response.getStatus()).isEqualTo(Status.PUBLISHED);
         assertThat(response.getPublishedAt()).isNotNull();
+        assertThat(response.getInstructor()).isEqualTo(new InstructorSummary(7L, "Paulo", "paulo@alura.com.br"));
         verify(courseRepository).save(course);
+        verify(authoringStates).recordStatus(courseId, Status.PUBLISHED);
     }
 
     @Test
     void publishCourse_shouldThrowExceptionWhenCourseNotFound() {
         Long courseId = 999L;
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.empty());
+        when(authoringStates.get(courseId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> courseService.publishCourse(courseId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -72,9 +80,11 @@ public class CourseServiceTest {
         Long courseId = 1L;
 
         Course course = mock(Course.class);
-        when(course.getStatus()).thenReturn(Status.PUBLISHED);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.PUBLISHED, 0, 0, 0)));
 
         assertThatThrownBy(() -> courseService.publishCourse(courseId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -83,15 +93,37 @@ public class CourseServiceTest {
         verify(courseRepository, never()).save(any());
     }
 
+    @Test
+    void publishCourse_shouldRecheckStatusOfTheLoadedRow() {
+        Long courseId = 1L;
+
+        Course course = mock(Course.class);
+        when(course.getStatus()).thenReturn(Status.PUBLISHED);
+
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 5, 5, 7)));
+
+        assertThatThrownBy(() -> courseService.publishCourse(courseId))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Course is not in BUILDING status. Current status: PUBLISHED");
+
+        verify(courseRepository, never()).save(any());
+        verify(course, never()).setPublishedAt(any());
+        verify(authoringStates).evict(courseId);
+    }
+
     @Test
     void publishCourse_shouldThrowExceptionWhenMissingTaskTypes() {
         Long courseId = 1L;
 
         Course course = mock(Course.class);
-        when(course.getStatus()).thenReturn(Status.BUILDING);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(taskRepository.countDistinctTypeByCourse(course)).thenReturn(2L);
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 3)));
 
         assertThatThrownBy(() -> courseService.publishCourse(courseId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -105,12 +137,11 @@ public class CourseServiceTest {
         Long courseId = 1L;
 
         Course course = mock(Course.class);
-        when(course.getStatus()).thenReturn(Status.BUILDING);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(taskRepository.countDistinctTypeByCourse(course)).thenReturn(0L);
-        when(taskRepository.countByCourse(course)).thenReturn(0L);
-        when(taskRepository.findMaxOrderByCourse(course)).thenReturn(Optional.empty());
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
 
         assertThatThrownBy(() -> courseService.publishCourse(courseId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -124,12 +155,11 @@ public class CourseServiceTest {
         Long courseId = 1L;
 
         Course course = mock(Course.class);
-        when(course.getStatus()).thenReturn(Status.BUILDING);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(taskRepository.countDistinctTypeByCourse(course)).thenReturn(3L);
-        when(taskRepository.countByCourse(course)).thenReturn(3L);
-        when(taskRepository.findMaxOrderByCourse(course)).thenReturn(Optional.of(5));
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 5, 3, 7)));
 
         assertThatThrownBy(() -> courseService.publishCourse(courseId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -143,12 +173,11 @@ public class CourseServiceTest {
         Long courseId = 1L;
 
         Course course = mock(Course.class);
-        when(course.getStatus()).thenReturn(Status.BUILDING);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(taskRepository.countDistinctTypeByCourse(course)).thenReturn(3L);
-        when(taskRepository.countByCourse(course)).thenReturn(4L);
-        when(taskRepository.findMaxOrderByCourse(course)).thenReturn(Optional.of(3));
+        when(courseRepository.findWithInstructorById(courseId)).thenReturn(Optional.of(
+                new CourseWithInstructor(course, 7L, "Paulo", "paulo@alura.com.br")));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 3, 4, 7)));
 
         assertThatThrownBy(() -> courseService.publishCourse(courseId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -156,4 +185,47 @@ public class CourseServiceTest {
 
         verify(courseRepository, never()).save(any());
     }
+
+    @Test
+    void checkPublishable_shouldReportEachCourseFromOneBulkLookup() {
+        List<Long> courseIds = List.of(1L, 2L, 3L);
+        when(authoringStates.getAll(courseIds)).thenReturn(Map.of(
+                1L, new CourseAuthoringState(Status.BUILDING, 3, 3, 7),
+                2L, new CourseAuthoringState(Status.BUILDING, 2, 2, 3)));
+
+        List<CoursePublishCheckResponse> checks = courseService.checkPublishable(courseIds);
+
+        assertThat(checks.get(0).isPublishable()).isTrue();
+        assertThat(checks.get(1).getReason()).contains("at least one activity of each type");
+        assertThat(checks.get(2).getReason()).isEqualTo("Course not found");
+        verify(authoringStates, times(1)).getAll(courseIds);
+    }
+
+    @Test
+    void listCourses_shouldReturnNextCursorOnlyWhenMoreCoursesExist() {
+        when(courseRepository.findListItemsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new CourseListItemDTO(1L, "Java", "Curso de Java", Status.BUILDING, null),
+                new CourseListItemDTO(2L, "Spring", "Curso de Spring", Status.BUILDING, null),
+                new CourseListItemDTO(3L, "Hibernate", "Curso de Hibernate", Status.BUILDING, null)));
+
+        CoursePageResponse first = courseService.listCourses(null, 2);
+
+        assertThat(first.getCourses().size()).isEqualTo(2);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        when(courseRepository.findListItemsAfter(eq(2L), any(Limit.class))).thenReturn(List.of(
+                new CourseListItemDTO(3L, "Hibernate", "Curso de Hibernate", Status.BUILDING, null)));
+
+        CoursePageResponse last = courseService.listCourses(first.getNextCursor(), 2);
+
+        assertThat(last.getCourses().size()).isEqualTo(1);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void listCourses_shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> courseService.listCourses("not a cursor", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
 }
@@ -0,0 +1,85 @@
+package br.com.alura.AluraFake.course;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CourseStatsReconcilerTest {
+
+    private CourseRepository courseRepository;
+    private CourseStatsRepository courseStatsRepository;
+    private ApplicationEventPublisher events;
+    private CourseStatsReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = mock(CourseRepository.class);
+        courseStatsRepository = mock(CourseStatsRepository.class);
+        events = mock(ApplicationEventPublisher.class);
+        reconciler = new CourseStatsReconciler(courseRepository, courseStatsRepository,
+                mock(PlatformTransactionManager.class), events, 2, 2, false);
+    }
+
+    @Test
+    void reconcile_shouldRebuildOnlyDriftedAndMissingRows() {
+        when(courseRepository.findIdsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(courseRepository.findIdsAfter(eq(2L), any(Limit.class))).thenReturn(List.of(3L));
+        when(courseRepository.findIdsAfter(eq(3L), any(Limit.class))).thenReturn(List.of());
+
+        when(courseStatsRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                new CourseStats(1L, 2, 2, 1, 1, 0),
+                new CourseStats(2L, 1, 1, 1, 0, 0)));
+        when(courseStatsRepository.computeFromTasks(List.of(1L, 2L))).thenReturn(List.of(
+                new CourseStats(1L, 2, 2, 1, 1, 0),
+                new CourseStats(2L, 3, 3, 1, 1, 1)));
+        when(courseStatsRepository.findAllById(List.of(3L))).thenReturn(List.of());
+        when(courseStatsRepository.computeFromTasks(List.of(3L))).thenReturn(List.of(
+                new CourseStats(3L, 0, 0, 0, 0, 0)));
+
+        int repaired = reconciler.reconcile();
+
+        assertThat(repaired).isEqualTo(2);
+        verify(courseStatsRepository).rebuild(List.of(2L));
+        verify(courseStatsRepository).rebuild(List.of(3L));
+        verify(courseStatsRepository, times(2)).rebuild(anyList());
+        verify(events).publishEvent(new CourseStatsRebuiltEvent(List.of(2L)));
+        verify(events).publishEvent(new CourseStatsRebuiltEvent(List.of(3L)));
+    }
+
+    @Test
+    void reconcile_shouldKeepOtherChunksRepairsWhenOneChunkFails() {
+        when(courseRepository.findIdsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(1L, 2L));
+        when(courseRepository.findIdsAfter(eq(2L), any(Limit.class))).thenReturn(List.of(3L));
+        when(courseRepository.findIdsAfter(eq(3L), any(Limit.class))).thenReturn(List.of());
+
+        when(courseStatsRepository.findAllById(List.of(1L, 2L))).thenThrow(new QueryTimeoutException("timeout"));
+        when(courseStatsRepository.findAllById(List.of(3L))).thenReturn(List.of());
+        when(courseStatsRepository.computeFromTasks(List.of(3L))).thenReturn(List.of(
+                new CourseStats(3L, 0, 0, 0, 0, 0)));
+
+        assertThat(reconciler.reconcile()).isEqualTo(1);
+        verify(courseStatsRepository).rebuild(List.of(3L));
+    }
+
+    @Test
+    void reconcile_shouldNotWriteWhenStatsMatch() {
+        when(courseRepository.findIdsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(1L));
+        when(courseRepository.findIdsAfter(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(courseStatsRepository.findAllById(List.of(1L))).thenReturn(List.of(new CourseStats(1L, 1, 1, 1, 0, 0)));
+        when(courseStatsRepository.computeFromTasks(List.of(1L))).thenReturn(List.of(new CourseStats(1L, 1, 1, 1, 0, 0)));
+
+        assertThat(reconciler.reconcile()).isZero();
+        verify(courseStatsRepository, never()).rebuild(anyList());
+    }
+}
@@ -5,7 +5,10 @@ import br.com.alura.AluraFake.task.dto.request.MultipleChoiceTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OpenTextTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OptionRequest;
 import br.com.alura.AluraFake.task.dto.request.SingleChoiceTaskRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchItemRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchRequest;
 import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import br.com.alura.AluraFake.task.dto.response.TaskPageResponse;
 import br.com.alura.AluraFake.task.dto.response.TaskResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -15,15 +18,24 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TaskController.class)
@@ -36,6 +48,8 @@ public class TaskControllerTest {
     @MockBean
     private TaskService taskService;
     @MockBean
+    private TaskIngestionService taskIngestionService;
+    @MockBean
     private CourseRepository courseRepository;
 
     @Test
@@ -253,4 +267,112 @@ public class TaskControllerTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void newTasksBatch_shouldReturnCreatedWhenValidRequest() throws Exception {
+        TaskBatchItemRequest item = new TaskBatchItemRequest();
+        item.setType(Type.OPEN_TEXT);
+        item.setStatement("O que aprendemos hoje?");
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(item));
+
+        when(taskService.createTasksBatch(eq(1L), any(TaskBatchRequest.class)))
+                .thenReturn(List.of(new TaskResponse(
+                        1L, 1L, "O que aprendemos hoje?", 1, Type.OPEN_TEXT, LocalDateTime.now(), null)));
+
+        mockMvc.perform(post("/course/1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void newTasksBatch_shouldReturnBadRequestWhenTasksAreEmpty() throws Exception {
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of());
+
+        mockMvc.perform(post("/course/1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        verify(taskService, never()).createTasksBatch(any(), any());
+    }
+
+    @Test
+    void newTasksStream_shouldStreamIngestionResults() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            output.write("{\"line\":1,\"status\":\"CREATED\"}\n".getBytes());
+            return null;
+        }).when(taskIngestionService).ingest(eq(1L), any(), any());
+
+        MvcResult result = mockMvc.perform(post("/course/1/tasks/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"type\":\"OPEN_TEXT\",\"statement\":\"O que aprendemos hoje?\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"line\":1,\"status\":\"CREATED\"}\n"));
+    }
+
+    @Test
+    void newTasksStream_shouldReturnBadRequestBeforeStreamingWhenCourseIsInvalid() throws Exception {
+        doThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Course not found"))
+                .when(taskIngestionService).validateCourse(999L);
+
+        mockMvc.perform(post("/course/999/tasks/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isBadRequest());
+        verify(taskIngestionService, never()).ingest(any(), any(), any());
+    }
+
+    @Test
+    void moveTask_shouldReturnOkWhenValidRequest() throws Exception {
+        when(taskService.moveTask(10L, 2)).thenReturn(new TaskResponse(
+                10L, 1L, "O que aprendemos hoje?", 2, Type.OPEN_TEXT, LocalDateTime.now(), null));
+
+        mockMvc.perform(patch("/task/10/order")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"order\":2}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void moveTask_shouldReturnBadRequestWhenOrderIsNotPositive() throws Exception {
+        mockMvc.perform(patch("/task/10/order")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"order\":0}"))
+                .andExpect(status().isBadRequest());
+        verify(taskService, never()).moveTask(any(), any());
+    }
+
+    @Test
+    void reorderTasks_shouldReturnNoContentWhenValidRequest() throws Exception {
+        mockMvc.perform(put("/course/1/tasks/order")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskIds\":[2,1,3]}"))
+                .andExpect(status().isNoContent());
+        verify(taskService).reorderTasks(eq(1L), any());
+    }
+
+    @Test
+    void listTasks_shouldReturnPageOfTasks() throws Exception {
+        when(taskService.listTasks(1L, null, 50)).thenReturn(new TaskPageResponse(List.of(new TaskResponse(
+                1L, 1L, "O que aprendemos hoje?", 1, Type.OPEN_TEXT, LocalDateTime.now(), null)), null));
+
+        mockMvc.perform(get("/course/1/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].order").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void listTasks_shouldReturnBadRequestWhenPageSizeIsTooLarge() throws Exception {
+        mockMvc.perform(get("/course/1/tasks").param("size", "1000"))
+                .andExpect(status().isBadRequest());
+        verify(taskService, never()).listTasks(any(), any(), anyInt());
+    }
 }
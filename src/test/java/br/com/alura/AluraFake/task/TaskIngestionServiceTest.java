@@ -0,0 +1,290 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringState;
+import br.com.alura.AluraFake.course.CourseAuthoringStateCache;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
+import br.com.alura.AluraFake.course.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {TaskIngestionService.class, TaskService.class,
+        JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+public class TaskIngestionServiceTest {
+
+    @Autowired
+    private TaskIngestionService taskIngestionService;
+
+    @MockBean
+    private TaskRepository taskRepository;
+
+    @MockBean
+    private CourseRepository courseRepository;
+
+    @MockBean
+    private TaskStatementIndex statementIndex;
+
+    @MockBean
+    private CourseAuthoringStateCache authoringStates;
+
+    @MockBean
+    private CourseStatsRepository courseStatsRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void courseRowIsBuilding() {
+        when(courseRepository.findStatusById(anyLong())).thenReturn(Optional.of(Status.BUILDING));
+    }
+
+    @Test
+    void ingest_shouldCreateValidRecordsAndRejectInvalidOnesPerLine() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(2));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse)).thenReturn(Optional.of(2 * TaskService.ORDER_KEY_GAP));
+        when(taskRepository.findStatementsByCourseAndStatementIn(eq(mockCourse), anyCollection()))
+                .thenReturn(List.of("Pergunta existente"));
+
+        String input = """
+                {"type":"OPEN_TEXT","statement":"O que aprendemos hoje?"}
+                not json
+                {"type":"SINGLE_CHOICE","statement":"Qual linguagem usamos?","options":[{"option":"Java","isCorrect":true},{"option":"Python","isCorrect":true}]}
+
+                {"type":"OPEN_TEXT","statement":"Pergunta existente"}
+                {"type":"MULTIPLE_CHOICE","statement":"Quais são frameworks Java?","options":[{"option":"Spring","isCorrect":true},{"option":"Hibernate","isCorrect":true},{"option":"Django","isCorrect":false}]}
+                {"type":"OPEN_TEXT","statement":"abc"}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results).hasSize(6);
+        assertThat(results[0]).contains("\"line\":1", "\"status\":\"CREATED\"", "\"order\":3");
+        assertThat(results[1]).contains("\"line\":2", "\"status\":\"REJECTED\"", "Malformed task record");
+        assertThat(results[2]).contains("\"line\":3", "REJECTED", "Activity must have one correct option");
+        assertThat(results[3]).contains("\"line\":5", "REJECTED", "Already exists a task with the same statement");
+        assertThat(results[4]).contains("\"line\":6", "\"status\":\"CREATED\"", "\"order\":4");
+        assertThat(results[5]).contains("\"line\":7", "REJECTED", "statement");
+        verify(taskRepository).saveAll(anyList());
+    }
+
+    @Test
+    void ingest_shouldLeaveStatementsDifferingOnlyByCaseOrAccentToTheUniqueKey() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        // the chunk stores line 2, then lines 1 and 3 are inserted one by one
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(0), Optional.of(1));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse))
+                .thenReturn(Optional.empty(), Optional.of(TaskService.ORDER_KEY_GAP));
+        when(taskRepository.findStatementsByCourseAndStatementIn(eq(mockCourse), anyCollection()))
+                .thenReturn(List.of("O que é Java?"));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Duplicate entry for key 'uk_task_course_statement'"));
+        doNothing().doThrow(violation).doNothing().when(taskRepository).flush();
+
+        String input = """
+                {"type":"OPEN_TEXT","statement":"O que e java?"}
+                {"type":"OPEN_TEXT","statement":"Qual é a IDE?"}
+                {"type":"OPEN_TEXT","statement":"QUAL E A IDE?"}
+                {"type":"OPEN_TEXT","statement":"Qual é a IDE?"}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results).hasSize(4);
+        assertThat(results[0]).contains("\"line\":1", "REJECTED", "Already exists a task with the same statement");
+        assertThat(results[1]).contains("\"line\":2", "\"status\":\"CREATED\"", "\"order\":1");
+        assertThat(results[2]).contains("\"line\":3", "\"status\":\"CREATED\"", "\"order\":2");
+        assertThat(results[3]).contains("\"line\":4", "REJECTED", "Already exists a task with the same statement");
+        verify(taskRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void ingest_shouldRejectOnlyTheRecordHittingTheStatementConstraint() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        // the chunk, then one read per record: line 1 commits before line 2, line 2 fails
+        when(taskRepository.findMaxOrderByCourse(mockCourse))
+                .thenReturn(Optional.of(0), Optional.of(0), Optional.of(1), Optional.of(1));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse)).thenReturn(Optional.empty(), Optional.empty(),
+                Optional.of(TaskService.ORDER_KEY_GAP), Optional.of(TaskService.ORDER_KEY_GAP));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Duplicate entry for key 'uk_task_course_statement'"));
+        doThrow(violation).doNothing().doThrow(violation).doNothing().when(taskRepository).flush();
+
+        String input = """
+                {"type":"OPEN_TEXT","statement":"Pergunta nova"}
+                {"type":"OPEN_TEXT","statement":"Pergunta concorrente"}
+                {"type":"OPEN_TEXT","statement":"Outra pergunta"}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results).hasSize(3);
+        assertThat(results[0]).contains("\"line\":1", "\"status\":\"CREATED\"", "\"order\":1");
+        assertThat(results[1]).contains("\"line\":2", "REJECTED", "Already exists a task with the same statement");
+        assertThat(results[2]).contains("\"line\":3", "\"status\":\"CREATED\"", "\"order\":2");
+    }
+
+    @Test
+    void ingest_shouldRejectRecordsLongerThanTheLineLimit() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(0));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse)).thenReturn(Optional.empty());
+
+        String input = "{\"type\":\"OPEN_TEXT\",\"statement\":\"" + "a".repeat(TaskIngestionService.MAX_LINE_LENGTH) + "\"}\n"
+                + "{\"type\":\"OPEN_TEXT\",\"statement\":\"Pergunta curta\"}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results).hasSize(2);
+        assertThat(results[0]).contains("\"line\":1", "REJECTED", "exceeds");
+        assertThat(results[1]).contains("\"line\":2", "\"status\":\"CREATED\"");
+    }
+
+    @Test
+    void ingest_shouldFlushOneTransactionPerChunk() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(0));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse)).thenReturn(Optional.empty());
+
+        StringBuilder input = new StringBuilder();
+        int records = TaskIngestionService.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < records; i++) {
+            input.append("{\"type\":\"OPEN_TEXT\",\"statement\":\"Pergunta ").append(i).append("\"}\n");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n")).hasSize(records);
+        verify(taskRepository, times(3)).saveAll(anyList());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void ingest_shouldReadTheLastOrderKeyAgainForEachChunk() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        // a single task was created between the two chunks
+        int firstChunk = TaskIngestionService.CHUNK_SIZE;
+        when(taskRepository.findMaxOrderByCourse(mockCourse))
+                .thenReturn(Optional.of(0), Optional.of(firstChunk + 1));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse))
+                .thenReturn(Optional.empty(), Optional.of((firstChunk + 1) * TaskService.ORDER_KEY_GAP));
+        ArgumentCaptor<List<Task>> saved = ArgumentCaptor.forClass(List.class);
+
+        String input = records(firstChunk + 1);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results[firstChunk]).contains("\"status\":\"CREATED\"", "\"order\":" + (firstChunk + 2));
+        verify(taskRepository, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(1).get(0).getOrderKey())
+                .isEqualTo((firstChunk + 2) * TaskService.ORDER_KEY_GAP);
+    }
+
+    @Test
+    void ingest_shouldRetryAChunkWhoseOrderKeyWasTakenConcurrently() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(0), Optional.of(1));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse))
+                .thenReturn(Optional.empty(), Optional.of(TaskService.ORDER_KEY_GAP));
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Duplicate entry for key 'uk_task_course_order_key'")))
+                .doNothing().when(taskRepository).flush();
+
+        String input = records(2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results).hasSize(2);
+        assertThat(results[0]).contains("\"line\":1", "\"status\":\"CREATED\"", "\"order\":2");
+        assertThat(results[1]).contains("\"line\":2", "\"status\":\"CREATED\"", "\"order\":3");
+        verify(taskRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void ingest_shouldRejectTheRestOfTheStreamOnceTheCourseIsPublished() throws Exception {
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(1L);
+        when(authoringStates.get(1L)).thenReturn(Optional.of(new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(1L)).thenReturn(mockCourse);
+        // checked when the stream opens, then once per chunk
+        when(courseRepository.findStatusById(1L))
+                .thenReturn(Optional.of(Status.BUILDING), Optional.of(Status.BUILDING), Optional.of(Status.PUBLISHED));
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(0));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse)).thenReturn(Optional.empty());
+
+        int records = TaskIngestionService.CHUNK_SIZE * 2 + 1;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        taskIngestionService.ingest(1L, new ByteArrayInputStream(records(records).getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(results).hasSize(records);
+        assertThat(results[TaskIngestionService.CHUNK_SIZE - 1]).contains("\"status\":\"CREATED\"");
+        assertThat(results[TaskIngestionService.CHUNK_SIZE]).contains("REJECTED",
+                "Cannot add tasks to a course that is not in BUILDING status");
+        assertThat(results[records - 1]).contains("REJECTED",
+                "Cannot add tasks to a course that is not in BUILDING status");
+        verify(taskRepository, times(1)).saveAll(anyList());
+        verify(courseRepository, times(3)).findStatusById(1L);
+    }
+
+    private String records(int count) {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            input.append("{\"type\":\"OPEN_TEXT\",\"statement\":\"Pergunta ").append(i).append("\"}\n");
+        }
+        return input.toString();
+    }
+}
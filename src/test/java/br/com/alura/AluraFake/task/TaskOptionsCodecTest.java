@@ -0,0 +1,50 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskOptionsCodecTest {
+
+    private final List<OptionRequest> options = List.of(
+            new OptionRequest("Java", true),
+            new OptionRequest("Python", false));
+
+    @Test
+    void toResponses_shouldKeepOptionTextAndCorrectness() {
+        List<OptionResponse> responses = TaskOptionsCodec.toResponses(options);
+
+        assertThat(responses).extracting(OptionResponse::getOption).containsExactly("Java", "Python");
+        assertThat(responses).extracting(OptionResponse::isCorrect).containsExactly(true, false);
+    }
+
+    @Test
+    void unpack_shouldReturnNullWhenNothingWasPacked() {
+        assertThat(TaskOptionsCodec.unpack(null)).isNull();
+    }
+
+    @Test
+    void unpack_shouldReadWhatPackWrote() {
+        List<OptionRequest> accented = List.of(
+                new OptionRequest("Programação", false),
+                new OptionRequest("Java", true),
+                new OptionRequest("Orientação", true));
+
+        List<OptionResponse> unpacked = TaskOptionsCodec.unpack(TaskOptionsCodec.pack(accented));
+
+        assertThat(unpacked).extracting(OptionResponse::getOption).containsExactly("Programação", "Java", "Orientação");
+        assertThat(unpacked).extracting(OptionResponse::isCorrect).containsExactly(false, true, true);
+    }
+
+    @Test
+    void pack_shouldUseOneByteForCountAndMaskAndALengthPrefixPerOption() {
+        byte[] packed = TaskOptionsCodec.pack(options);
+
+        assertThat(packed).startsWith(2, 0b01);
+        assertThat(packed.length).isEqualTo(2 + 2 + 4 + 2 + 6);
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.task.dto.request.OptionRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskOptionsValidatorTest {
+
+    @Test
+    void validate_shouldAcceptValidSingleAndMultipleChoiceOptions() {
+        assertThatCode(() -> TaskOptionsValidator.validate(Type.SINGLE_CHOICE, List.of(
+                new OptionRequest("Java", true),
+                new OptionRequest("Python", false)), "Qual linguagem?"))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> TaskOptionsValidator.validate(Type.MULTIPLE_CHOICE, List.of(
+                new OptionRequest("Spring", true),
+                new OptionRequest("Hibernate", true),
+                new OptionRequest("Django", false)), "Quais frameworks?"))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void validate_shouldReportInvalidLengthBeforeDuplicatedOptions() {
+        List<OptionRequest> options = List.of(
+                new OptionRequest("Java", true),
+                new OptionRequest("Java", false),
+                new OptionRequest("C", false));
+
+        assertThatThrownBy(() -> TaskOptionsValidator.validate(Type.SINGLE_CHOICE, options, "Qual linguagem?"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Problem in option: 'C'");
+    }
+
+    @Test
+    void validate_shouldReportDuplicatedOptionsBeforeCorrectCount() {
+        List<OptionRequest> options = List.of(
+                new OptionRequest("Java", true),
+                new OptionRequest("Python", true),
+                new OptionRequest("Java", true));
+
+        assertThatThrownBy(() -> TaskOptionsValidator.validate(Type.MULTIPLE_CHOICE, options, "Qual linguagem?"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("All options must be unique");
+    }
+
+    @Test
+    void validate_shouldRequireAnIncorrectOptionForMultipleChoice() {
+        List<OptionRequest> options = List.of(
+                new OptionRequest("Spring", true),
+                new OptionRequest("Hibernate", true),
+                new OptionRequest("Quarkus", true));
+
+        assertThatThrownBy(() -> TaskOptionsValidator.validate(Type.MULTIPLE_CHOICE, options, "Quais frameworks?"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("at least one incorrect option");
+    }
+}
@@ -1,17 +1,29 @@
 package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseAuthoringState;
+import br.com.alura.AluraFake.course.CourseAuthoringStateCache;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
 import br.com.alura.AluraFake.course.Status;
 import br.com.alura.AluraFake.task.dto.request.MultipleChoiceTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OpenTextTaskRequest;
 import br.com.alura.AluraFake.task.dto.request.OptionRequest;
 import br.com.alura.AluraFake.task.dto.request.SingleChoiceTaskRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchItemRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskBatchRequest;
+import br.com.alura.AluraFake.task.dto.request.TaskPermutationRequest;
 import br.com.alura.AluraFake.task.dto.response.OptionResponse;
+import br.com.alura.AluraFake.task.dto.response.TaskPageResponse;
 import br.com.alura.AluraFake.task.dto.response.TaskResponse;
+import br.com.alura.AluraFake.util.IdCursor;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -19,6 +31,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -36,6 +49,20 @@ public class TaskServiceTest {
     @MockBean
     private CourseRepository courseRepository;
 
+    @MockBean
+    private TaskStatementIndex statementIndex;
+
+    @MockBean
+    private CourseAuthoringStateCache authoringStates;
+
+    @MockBean
+    private CourseStatsRepository courseStatsRepository;
+
+    @BeforeEach
+    void courseRowIsBuilding() {
+        when(courseRepository.findStatusById(anyLong())).thenReturn(Optional.of(Status.BUILDING));
+    }
+
     @Test
     void createOpenTextTask_shouldCreateTaskWhenRequestIsValid() {
         Long courseId = 1L;
@@ -45,10 +72,10 @@ public class TaskServiceTest {
         request.setOrder(1);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         Task savedTask = new Task();
         savedTask.setId(1L);
@@ -67,8 +94,8 @@ public class TaskServiceTest {
         assertThat(response.getStatement()).isEqualTo("Fake Statement");
         assertThat(response.getType()).isEqualTo(Type.OPEN_TEXT);
         assertThat(response.getOptions()).isNull();
-        verify(courseRepository).findById(courseId);
-        verify(taskRepository).existsByCourseAndStatement(mockCourse, request.getStatement());
+        verify(authoringStates).get(courseId);
+        verify(statementIndex).exists(mockCourse, request.getStatement());
         verify(taskRepository).save(any(Task.class));
     }
 
@@ -81,8 +108,9 @@ public class TaskServiceTest {
         request.setOrder(1);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.PUBLISHED); // Status INVÁLIDO
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.PUBLISHED, 0, 0, 0)));
 
         assertThatThrownBy(() -> taskService.createOpenTextTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -90,6 +118,47 @@ public class TaskServiceTest {
         verify(taskRepository, never()).save(any());
     }
 
+    @Test
+    void createOpenTextTask_shouldRecheckStatusOfTheCourseRow() {
+        Long courseId = 2L;
+        OpenTextTaskRequest request = new OpenTextTaskRequest();
+        request.setCourseId(courseId);
+        request.setStatement("Fake Statement");
+        request.setOrder(1);
+
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.findStatusById(courseId)).thenReturn(Optional.of(Status.PUBLISHED));
+
+        assertThatThrownBy(() -> taskService.createOpenTextTask(request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Cannot add tasks to a course that is not in BUILDING status");
+        verify(authoringStates).evict(courseId);
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void createOpenTextTask_shouldTranslateStatementConstraintViolationToDuplicateError() {
+        Long courseId = 1L;
+        OpenTextTaskRequest request = new OpenTextTaskRequest();
+        request.setCourseId(courseId);
+        request.setStatement("Pergunta concorrente");
+        request.setOrder(1);
+
+        Course mockCourse = mock(Course.class);
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(taskRepository.findOrderKeysFromOffset(any(), anyInt())).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Duplicate entry for key 'uk_task_course_statement'")))
+                .when(taskRepository).flush();
+
+        assertThatThrownBy(() -> taskService.createOpenTextTask(request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Already exists a task with the same statement in this course");
+    }
+
     @Test
     void createOpenTextTask_shouldThrowExceptionWhenStatementIsNotUnique() {
         Long courseId = 1L;
@@ -100,9 +169,10 @@ public class TaskServiceTest {
         request.setOrder(1);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
-        when(taskRepository.existsByCourseAndStatement(mockCourse, duplicateStatement)).thenReturn(true);
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(statementIndex.exists(mockCourse, duplicateStatement)).thenReturn(true);
 
         assertThatThrownBy(() -> taskService.createOpenTextTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -125,11 +195,11 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
-        when(taskRepository.findByCourseAndOrderGreaterThanEqualOrderByOrderDesc(any(), any())).thenReturn(List.of());
+        when(taskRepository.findOrderKeysFromOffset(any(), anyInt())).thenReturn(List.of());
 
 
         Task savedTask = new Task();
@@ -139,7 +209,6 @@ public class TaskServiceTest {
         savedTask.setType(Type.SINGLE_CHOICE);
         savedTask.setCourse(mockCourse);
         savedTask.setCreatedAt(LocalDateTime.now());
-        savedTask.setOptions("[{\"option\":\"Java\",\"isCorrect\":true},{\"option\":\"Python\",\"isCorrect\":false},{\"option\":\"Flutter\",\"isCorrect\":false}]");
 
         when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
 
@@ -155,8 +224,8 @@ public class TaskServiceTest {
         assertThat(response.getId()).isEqualTo(1L);
         assertThat(response.getStatement()).isEqualTo("Qual linguagem usamos no Spring Boot?");
         assertThat(response.getType()).isEqualTo(Type.SINGLE_CHOICE);
-        verify(courseRepository).findById(courseId);
-        verify(taskRepository).existsByCourseAndStatement(mockCourse, request.getStatement());
+        verify(authoringStates).get(courseId);
+        verify(statementIndex).exists(mockCourse, request.getStatement());
         verify(taskRepository).save(any(Task.class));
     }
 
@@ -174,10 +243,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -203,10 +272,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -228,10 +297,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -254,10 +323,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -279,10 +348,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -305,10 +374,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -331,10 +400,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createSingleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -357,11 +426,11 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
-        when(taskRepository.findByCourseAndOrderGreaterThanEqualOrderByOrderDesc(any(), any())).thenReturn(List.of());
+        when(taskRepository.findOrderKeysFromOffset(any(), anyInt())).thenReturn(List.of());
 
         Task savedTask = new Task();
         savedTask.setId(1L);
@@ -370,7 +439,6 @@ public class TaskServiceTest {
         savedTask.setType(Type.MULTIPLE_CHOICE);
         savedTask.setCourse(mockCourse);
         savedTask.setCreatedAt(LocalDateTime.now());
-        savedTask.setOptions("[{\"option\":\"Spring\",\"isCorrect\":true},{\"option\":\"Hibernate\",\"isCorrect\":true},{\"option\":\"Django\",\"isCorrect\":false}]");
 
         when(taskRepository.save(any(Task.class))).thenReturn(savedTask);
 
@@ -380,8 +448,8 @@ public class TaskServiceTest {
         assertThat(response.getId()).isEqualTo(1L);
         assertThat(response.getStatement()).isEqualTo("Quais são frameworks Java?");
         assertThat(response.getType()).isEqualTo(Type.MULTIPLE_CHOICE);
-        verify(courseRepository).findById(courseId);
-        verify(taskRepository).existsByCourseAndStatement(mockCourse, request.getStatement());
+        verify(authoringStates).get(courseId);
+        verify(statementIndex).exists(mockCourse, request.getStatement());
         verify(taskRepository).save(any(Task.class));
     }
 
@@ -400,10 +468,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -429,10 +497,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -455,10 +523,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -481,10 +549,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -507,10 +575,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -533,10 +601,10 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
@@ -560,13 +628,472 @@ public class TaskServiceTest {
         request.setOptions(options);
 
         Course mockCourse = mock(Course.class);
-        when(mockCourse.getStatus()).thenReturn(Status.BUILDING);
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(mockCourse));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
         when(taskRepository.existsByCourseAndStatement(mockCourse, request.getStatement())).thenReturn(false);
-        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> taskService.createMultipleChoiceTask(request))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("Options cannot be the same as the task statement");
     }
+
+    @Test
+    void createOpenTextTask_shouldPlaceTaskBetweenNeighbourOrderKeys() {
+        Long courseId = 1L;
+        OpenTextTaskRequest request = new OpenTextTaskRequest();
+        request.setCourseId(courseId);
+        request.setStatement("Nova atividade no meio");
+        request.setOrder(2);
+
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 2, 2, 0)));
+        when(taskRepository.findOrderKeysFromOffset(courseId, 0))
+                .thenReturn(List.of(TaskService.ORDER_KEY_GAP, 2 * TaskService.ORDER_KEY_GAP));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TaskResponse response = taskService.createOpenTextTask(request);
+
+        ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(captor.capture());
+        assertThat(captor.getValue().getOrderKey()).isEqualTo(TaskService.ORDER_KEY_GAP + TaskService.ORDER_KEY_GAP / 2);
+        assertThat(response.getOrder()).isEqualTo(2);
+        verify(taskRepository, never()).shiftOrderKeysFrom(any(), any(), anyLong());
+    }
+
+    @Test
+    void createOpenTextTask_shouldAppendAfterLastOrderKey() {
+        Long courseId = 1L;
+        OpenTextTaskRequest request = new OpenTextTaskRequest();
+        request.setCourseId(courseId);
+        request.setStatement("Nova atividade no final");
+        request.setOrder(3);
+
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 2, 2, 0)));
+        when(taskRepository.findOrderKeysFromOffset(courseId, 1)).thenReturn(List.of(2 * TaskService.ORDER_KEY_GAP));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.createOpenTextTask(request);
+
+        ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(captor.capture());
+        assertThat(captor.getValue().getOrderKey()).isEqualTo(3 * TaskService.ORDER_KEY_GAP);
+    }
+
+    @Test
+    void createOpenTextTask_shouldShiftFollowingOrderKeysWhenGapIsExhausted() {
+        Long courseId = 1L;
+        OpenTextTaskRequest request = new OpenTextTaskRequest();
+        request.setCourseId(courseId);
+        request.setStatement("Atividade sem espaço");
+        request.setOrder(2);
+
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 2, 2, 0)));
+        when(taskRepository.findOrderKeysFromOffset(courseId, 0)).thenReturn(List.of(5L, 6L));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.createOpenTextTask(request);
+
+        verify(taskRepository).shiftOrderKeysFrom(courseId, 6L, TaskService.ORDER_KEY_GAP);
+        ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(captor.capture());
+        assertThat(captor.getValue().getOrderKey()).isEqualTo(5L + (1 + TaskService.ORDER_KEY_GAP) / 2);
+    }
+
+    @Test
+    void createTasksBatch_shouldAppendAllTasksAfterExistingOnes() {
+        Long courseId = 1L;
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(
+                batchItem(Type.OPEN_TEXT, "O que aprendemos hoje?", null),
+                batchItem(Type.SINGLE_CHOICE, "Qual linguagem usamos?", List.of(
+                        new OptionRequest("Java", true),
+                        new OptionRequest("Python", false))),
+                batchItem(Type.MULTIPLE_CHOICE, "Quais são frameworks Java?", List.of(
+                        new OptionRequest("Spring", true),
+                        new OptionRequest("Hibernate", true),
+                        new OptionRequest("Django", false)))
+        ));
+
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+                when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(1));
+        when(taskRepository.findMaxOrderKeyByCourse(mockCourse)).thenReturn(Optional.of(TaskService.ORDER_KEY_GAP));
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskResponse> responses = taskService.createTasksBatch(courseId, request);
+
+        assertThat(responses.size()).isEqualTo(3);
+        assertThat(responses.get(0).getOrder()).isEqualTo(2);
+        assertThat(responses.get(2).getOrder()).isEqualTo(4);
+        assertThat(responses.get(0).getOptions()).isNull();
+        assertThat(responses.get(2).getOptions().size()).isEqualTo(3);
+        verify(statementIndex, never()).exists(any(), any());
+        verify(taskRepository, never()).save(any());
+        verify(taskRepository).saveAll(anyList());
+    }
+
+    @Test
+    void createTasksBatch_shouldRejectDuplicateStatementsInsideTheBatch() {
+        Long courseId = 1L;
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(
+                batchItem(Type.OPEN_TEXT, "Mesma pergunta", null),
+                batchItem(Type.OPEN_TEXT, "Mesma pergunta", null)
+        ));
+
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+
+        assertThatThrownBy(() -> taskService.createTasksBatch(courseId, request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Already exists a task with the same statement in this course");
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createTasksBatch_shouldRejectStatementsTheCollationMatchesToExistingOnes() {
+        Long courseId = 1L;
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(
+                batchItem(Type.OPEN_TEXT, "O que e java?", null)
+        ));
+
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(taskRepository.findStatementsByCourseAndStatementIn(eq(mockCourse), anyCollection()))
+                .thenReturn(List.of("O que é Java?"));
+
+        assertThatThrownBy(() -> taskService.createTasksBatch(courseId, request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Already exists a task with the same statement in this course");
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createTasksBatch_shouldLeaveStatementsDifferingOnlyByAccentToTheUniqueKey() {
+        Long courseId = 1L;
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(
+                batchItem(Type.OPEN_TEXT, "Qual é a saída?", null),
+                batchItem(Type.OPEN_TEXT, "Qual e a saida?", null)
+        ));
+
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskResponse> responses = taskService.createTasksBatch(courseId, request);
+
+        assertThat(responses.size()).isEqualTo(2);
+        verify(taskRepository).flush();
+    }
+
+    @Test
+    void createTasksBatch_shouldMapStatementConstraintViolationToBadRequest() {
+        Long courseId = 1L;
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(
+                batchItem(Type.OPEN_TEXT, "Pergunta nova", null)
+        ));
+
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new RuntimeException("Duplicate entry for key 'uk_task_course_statement'")))
+                .when(taskRepository).flush();
+
+        assertThatThrownBy(() -> taskService.createTasksBatch(courseId, request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Already exists a task with the same statement in this course");
+        verify(courseStatsRepository, never()).recordTasks(any(), anyList());
+    }
+
+    @Test
+    void createTasksBatch_shouldRejectWholeBatchWhenOneTaskHasInvalidOptions() {
+        Long courseId = 1L;
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setTasks(List.of(
+                batchItem(Type.OPEN_TEXT, "Pergunta aberta", null),
+                batchItem(Type.SINGLE_CHOICE, "Pergunta sem correta", List.of(
+                        new OptionRequest("Opção A", false),
+                        new OptionRequest("Opção B", false)))
+        ));
+
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+
+        assertThatThrownBy(() -> taskService.createTasksBatch(courseId, request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Activity must have one correct option");
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void moveTask_shouldMoveTaskForwardUpdatingOnlyItsOrderKey() {
+        Long courseId = 1L;
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+
+        Task task = new Task();
+        task.setId(10L);
+        task.setCourse(mockCourse);
+        task.setStatement("Primeira atividade");
+        task.setType(Type.OPEN_TEXT);
+        task.setOrderKey(TaskService.ORDER_KEY_GAP);
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(task));
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(3));
+        when(taskRepository.countByCourseAndOrderKeyLessThan(mockCourse, TaskService.ORDER_KEY_GAP)).thenReturn(0L);
+        when(taskRepository.findOrderKeysFromOffset(courseId, 2)).thenReturn(List.of(3 * TaskService.ORDER_KEY_GAP));
+
+        TaskResponse response = taskService.moveTask(10L, 3);
+
+        assertThat(response.getOrder()).isEqualTo(3);
+        verify(taskRepository).updateOrderKey(10L, 4 * TaskService.ORDER_KEY_GAP);
+        verify(taskRepository, never()).shiftOrderKeysFrom(any(), any(), anyLong());
+    }
+
+    @Test
+    void moveTask_shouldMoveTaskBackwardBeforeItsNewNeighbour() {
+        Long courseId = 1L;
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+
+        Task task = new Task();
+        task.setId(30L);
+        task.setCourse(mockCourse);
+        task.setOrderKey(3 * TaskService.ORDER_KEY_GAP);
+        when(taskRepository.findById(30L)).thenReturn(Optional.of(task));
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(3));
+        when(taskRepository.countByCourseAndOrderKeyLessThan(mockCourse, 3 * TaskService.ORDER_KEY_GAP)).thenReturn(2L);
+        when(taskRepository.findOrderKeysFromOffset(courseId, 0))
+                .thenReturn(List.of(TaskService.ORDER_KEY_GAP, 2 * TaskService.ORDER_KEY_GAP));
+
+        taskService.moveTask(30L, 1);
+
+        verify(taskRepository).updateOrderKey(30L, TaskService.ORDER_KEY_GAP / 2);
+    }
+
+    @Test
+    void moveTask_shouldThrowExceptionWhenOrderIsBeyondCourseSize() {
+        Long courseId = 1L;
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+
+        Task task = new Task();
+        task.setId(10L);
+        task.setCourse(mockCourse);
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(task));
+        when(taskRepository.findMaxOrderByCourse(mockCourse)).thenReturn(Optional.of(3));
+
+        assertThatThrownBy(() -> taskService.moveTask(10L, 4))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("must be between 1 and 3");
+        verify(taskRepository, never()).updateOrderKey(any(), any());
+    }
+
+    @Test
+    void moveTask_shouldThrowExceptionWhenCourseIsNotBuilding() {
+        Long courseId = 1L;
+        Course mockCourse = mock(Course.class);
+        when(mockCourse.getId()).thenReturn(courseId);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.PUBLISHED, 3, 3, 7)));
+
+        Task task = new Task();
+        task.setId(10L);
+        task.setCourse(mockCourse);
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(task));
+
+        assertThatThrownBy(() -> taskService.moveTask(10L, 2))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Cannot reorder tasks of a course that is not in BUILDING status");
+        verify(taskRepository, never()).updateOrderKey(any(), any());
+    }
+
+    @Test
+    void reorderTasks_shouldRewriteOnlyTasksOutsideTheLongestKeptSequence() {
+        Long courseId = 1L;
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(taskRepository.findOrderKeysByCourse(mockCourse)).thenReturn(List.of(
+                new TaskOrderKey(1L, TaskService.ORDER_KEY_GAP),
+                new TaskOrderKey(2L, 2 * TaskService.ORDER_KEY_GAP),
+                new TaskOrderKey(3L, 3 * TaskService.ORDER_KEY_GAP),
+                new TaskOrderKey(4L, 4 * TaskService.ORDER_KEY_GAP)));
+
+        Task moved = new Task();
+        moved.setId(1L);
+        moved.setOrderKey(TaskService.ORDER_KEY_GAP);
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(moved));
+
+        TaskPermutationRequest request = new TaskPermutationRequest();
+        request.setTaskIds(List.of(2L, 3L, 1L, 4L));
+
+        taskService.reorderTasks(courseId, request);
+
+        ArgumentCaptor<Iterable<Long>> idsCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(taskRepository).findAllById(idsCaptor.capture());
+        assertThat(idsCaptor.getValue()).isEqualTo(Set.of(1L));
+        assertThat(moved.getOrderKey()).isEqualTo(3 * TaskService.ORDER_KEY_GAP + TaskService.ORDER_KEY_GAP / 2);
+        verify(taskRepository, times(2)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void reorderTasks_shouldThrowExceptionWhenIdsAreNotAPermutationOfTheCourseTasks() {
+        Long courseId = 1L;
+        Course mockCourse = mock(Course.class);
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(courseRepository.getReferenceById(courseId)).thenReturn(mockCourse);
+        when(taskRepository.findOrderKeysByCourse(mockCourse)).thenReturn(List.of(
+                new TaskOrderKey(1L, TaskService.ORDER_KEY_GAP),
+                new TaskOrderKey(2L, 2 * TaskService.ORDER_KEY_GAP)));
+
+        TaskPermutationRequest request = new TaskPermutationRequest();
+        request.setTaskIds(List.of(2L, 2L));
+
+        assertThatThrownBy(() -> taskService.reorderTasks(courseId, request))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("exactly once");
+        verify(taskRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void listTasks_shouldReturnFirstPageWithCursorForTheNextOne() {
+        Long courseId = 1L;
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(taskRepository.findSummariesByCourseIdAfterOrderKey(courseId, 0L, Limit.of(3))).thenReturn(List.of(
+                new TaskSummary(1L, "Primeira", TaskService.ORDER_KEY_GAP, Type.OPEN_TEXT, LocalDateTime.now(), null, null),
+                new TaskSummary(2L, "Segunda", 2 * TaskService.ORDER_KEY_GAP, Type.SINGLE_CHOICE, LocalDateTime.now(),
+                        TaskOptionsCodec.pack(List.of(new OptionRequest("Java", true), new OptionRequest("Python", false))),
+                        TaskOptionsCodec.PACKED_VERSION),
+                new TaskSummary(3L, "Terceira", 3 * TaskService.ORDER_KEY_GAP, Type.OPEN_TEXT, LocalDateTime.now(), null, null)));
+
+        TaskPageResponse page = taskService.listTasks(courseId, null, 2);
+
+        assertThat(page.getTasks().size()).isEqualTo(2);
+        assertThat(page.getTasks().get(0).getOrder()).isEqualTo(1);
+        assertThat(page.getTasks().get(1).getOrder()).isEqualTo(2);
+        assertThat(page.getTasks().get(1).getOptions().size()).isEqualTo(2);
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void listTasks_shouldUnpackOptionsStoredInPackedFormat() {
+        Long courseId = 1L;
+        byte[] packed = TaskOptionsCodec.pack(List.of(new OptionRequest("Java", true), new OptionRequest("Python", false)));
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(taskRepository.findSummariesByCourseIdAfterOrderKey(courseId, 0L, Limit.of(2))).thenReturn(List.of(
+                new TaskSummary(1L, "Primeira", TaskService.ORDER_KEY_GAP, Type.SINGLE_CHOICE, LocalDateTime.now(),
+                        packed, TaskOptionsCodec.PACKED_VERSION)));
+
+        TaskResponse response = taskService.listTasks(courseId, null, 1).getTasks().get(0);
+
+        assertThat(response.getOptions().size()).isEqualTo(2);
+        assertThat(response.getOptions().get(0).getOption()).isEqualTo("Java");
+        assertThat(response.getOptions().get(0).isCorrect()).isTrue();
+    }
+
+    @Test
+    void listTasks_shouldContinueOrderNumberingFromCursor() {
+        Long courseId = 1L;
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(taskRepository.findSummariesByCourseIdAfterOrderKey(courseId, 0L, Limit.of(3))).thenReturn(List.of(
+                new TaskSummary(1L, "Primeira", 10L, Type.OPEN_TEXT, LocalDateTime.now(), null, null),
+                new TaskSummary(2L, "Segunda", 20L, Type.OPEN_TEXT, LocalDateTime.now(), null, null),
+                new TaskSummary(3L, "Terceira", 30L, Type.OPEN_TEXT, LocalDateTime.now(), null, null)));
+        when(taskRepository.findSummariesByCourseIdAfterOrderKey(courseId, 20L, Limit.of(3))).thenReturn(List.of(
+                new TaskSummary(3L, "Terceira", 30L, Type.OPEN_TEXT, LocalDateTime.now(), null, null)));
+        when(taskRepository.countByCourseIdAndOrderKeyLessThanEqual(courseId, 20L)).thenReturn(2L);
+
+        String cursor = taskService.listTasks(courseId, null, 2).getNextCursor();
+        TaskPageResponse page = taskService.listTasks(courseId, cursor, 2);
+
+        assertThat(page.getTasks().size()).isEqualTo(1);
+        assertThat(page.getTasks().get(0).getId()).isEqualTo(3L);
+        assertThat(page.getTasks().get(0).getOrder()).isEqualTo(3);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void listTasks_shouldCountTheRankOfTheCursorInsteadOfTrustingIt() {
+        Long courseId = 1L;
+        when(authoringStates.get(courseId)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+        when(taskRepository.findSummariesByCourseIdAfterOrderKey(courseId, 20L, Limit.of(3))).thenReturn(List.of(
+                new TaskSummary(3L, "Terceira", 30L, Type.OPEN_TEXT, LocalDateTime.now(), null, null)));
+        // a task was inserted before the cursor since the previous page was served
+        when(taskRepository.countByCourseIdAndOrderKeyLessThanEqual(courseId, 20L)).thenReturn(3L);
+
+        TaskPageResponse page = taskService.listTasks(courseId, IdCursor.encode(20L), 2);
+
+        assertThat(page.getTasks().get(0).getOrder()).isEqualTo(4);
+    }
+
+    @Test
+    void listTasks_shouldThrowExceptionWhenCourseDoesNotExist() {
+        when(authoringStates.get(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> taskService.listTasks(99L, null, 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400 BAD_REQUEST")
+                .hasMessageContaining("Course not found");
+    }
+
+    @Test
+    void listTasks_shouldThrowExceptionWhenCursorIsInvalid() {
+        when(authoringStates.get(1L)).thenReturn(Optional.of(
+                new CourseAuthoringState(Status.BUILDING, 0, 0, 0)));
+
+        assertThatThrownBy(() -> taskService.listTasks(1L, "not-a-cursor", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    private TaskBatchItemRequest batchItem(Type type, String statement, List<OptionRequest> options) {
+        TaskBatchItemRequest item = new TaskBatchItemRequest();
+        item.setType(type);
+        item.setStatement(statement);
+        item.setOptions(options);
+        return item;
+    }
 }
@@ -0,0 +1,105 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.course.Course;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TaskStatementIndexTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskStatementIndex index = new TaskStatementIndex(taskRepository, meterRegistry, 1_000);
+
+    private Course course(Long id) {
+        Course course = mock(Course.class);
+        when(course.getId()).thenReturn(id);
+        return course;
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("task.statement.index", "result", result).count();
+    }
+
+    @Test
+    void exists_shouldSkipDatabaseForUnknownStatementAndWarmOnlyOnce() {
+        Course course = course(1L);
+        when(taskRepository.findStatementsByCourse(course)).thenReturn(List.of("O que aprendemos hoje?"));
+
+        assertThat(index.exists(course, "Pergunta nova")).isFalse();
+        assertThat(index.exists(course, "Outra pergunta")).isFalse();
+
+        verify(taskRepository, times(1)).findStatementsByCourse(course);
+        verify(taskRepository, never()).existsByCourseAndStatement(any(), any());
+        assertThat(count("skipped")).isEqualTo(2);
+    }
+
+    @Test
+    void exists_shouldConfirmPossibleDuplicatesWithDatabase() {
+        Course course = course(1L);
+        when(taskRepository.findStatementsByCourse(course)).thenReturn(List.of("O que aprendemos hoje?", "Removida"));
+        when(taskRepository.existsByCourseAndStatement(course, "O que aprendemos hoje?")).thenReturn(true);
+
+        assertThat(index.exists(course, "O que aprendemos hoje?")).isTrue();
+        assertThat(index.exists(course, "Removida")).isFalse();
+
+        assertThat(count("duplicate")).isEqualTo(1);
+        assertThat(count("false_positive")).isEqualTo(1);
+    }
+
+    @Test
+    void add_shouldMakeInsertedStatementVisibleOnceCourseIsWarm() {
+        Course course = course(1L);
+        when(taskRepository.findStatementsByCourse(course)).thenReturn(List.of());
+        index.exists(course, "Aquecimento");
+
+        index.add(course, "Pergunta nova");
+        index.exists(course, "Pergunta nova");
+
+        verify(taskRepository).existsByCourseAndStatement(course, "Pergunta nova");
+    }
+
+    @Test
+    void exists_shouldAskDatabaseForStatementsDifferingOnlyByCaseOrAccent() {
+        Course course = course(1L);
+        when(taskRepository.findStatementsByCourse(course)).thenReturn(List.of("O que é Java?"));
+        when(taskRepository.existsByCourseAndStatement(course, "o que e JAVA?")).thenReturn(true);
+
+        assertThat(index.exists(course, "o que e JAVA?")).isTrue();
+
+        assertThat(count("skipped")).isZero();
+        assertThat(count("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    void exists_shouldEvictLeastRecentlyUsedCoursesOverTheEntryBudget() {
+        Course first = course(1L);
+        when(taskRepository.findStatementsByCourse(any())).thenReturn(List.of());
+        index.exists(first, "Pergunta");
+        for (long id = 2; id <= 20; id++) {
+            index.exists(course(id), "Pergunta");
+        }
+
+        assertThat(index.entriesInUse()).isLessThanOrEqualTo(1_000);
+        index.exists(first, "Pergunta");
+        verify(taskRepository, times(2)).findStatementsByCourse(first);
+    }
+
+    @Test
+    void add_shouldReloadAFilterThatOutgrewItsSizing() {
+        Course course = course(1L);
+        when(taskRepository.findStatementsByCourse(course)).thenReturn(List.of());
+        index.exists(course, "Aquecimento");
+
+        for (int i = 0; i <= TaskStatementIndex.MIN_CAPACITY; i++) {
+            index.add(course, "Pergunta " + i);
+        }
+        index.exists(course, "Aquecimento");
+
+        verify(taskRepository, times(2)).findStatementsByCourse(course);
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.course.CourseCreatedEvent;
+import br.com.alura.AluraFake.course.CoursePublishedEvent;
+import br.com.alura.AluraFake.course.CourseStatsRebuiltEvent;
+import br.com.alura.AluraFake.course.Status;
+import br.com.alura.AluraFake.task.TasksCreatedEvent;
+import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
+import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstructorReportCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final InstructorReportCache cache =
+            new InstructorReportCache(meterRegistry, 2, Duration.ofSeconds(30), now::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Supplier<InstructorCoursesReportResponse> loader(Long... courseIds) {
+        return () -> {
+            loads.incrementAndGet();
+            List<InstructorCourseDTO> courses = Arrays.stream(courseIds)
+                    .map(id -> new InstructorCourseDTO(id, "Curso " + id, Status.BUILDING, null, 0L))
+                    .toList();
+            return new InstructorCoursesReportResponse(courses, 0L);
+        };
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    @Test
+    void get_shouldServeRepeatedReadsFromMemoryUntilTtlExpires() {
+        cache.get(1L, loader(10L));
+        cache.get(1L, loader(10L));
+        assertThat(loads).hasValue(1);
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.get(1L, loader(10L));
+
+        assertThat(loads).hasValue(2);
+        assertThat(count("instructor.report.cache", "result", "hit")).isEqualTo(1);
+        assertThat(count("instructor.report.cache", "result", "miss")).isEqualTo(2);
+        assertThat(count("instructor.report.cache.evictions", "cause", "expired")).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedInstructorWhenFull() {
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(20L));
+        cache.get(1L, loader(10L));
+        cache.get(3L, loader(30L));
+
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(20L));
+
+        assertThat(loads).hasValue(4);
+        assertThat(count("instructor.report.cache.evictions", "cause", "size")).isEqualTo(2);
+        assertThat(meterRegistry.get("instructor.report.cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void events_shouldInvalidateOnlyTheAffectedInstructor() {
+        cache.get(1L, loader(10L, 11L));
+        cache.get(2L, loader(20L));
+
+        cache.onTasksCreated(new TasksCreatedEvent(11L, 1));
+        cache.get(1L, loader(10L, 11L));
+        cache.get(2L, loader(20L));
+        assertThat(loads).hasValue(3);
+
+        cache.onCoursePublished(new CoursePublishedEvent(20L));
+        cache.onCourseCreated(new CourseCreatedEvent(12L, 1L));
+        cache.get(1L, loader(10L, 11L, 12L));
+        cache.get(2L, loader(20L));
+        assertThat(loads).hasValue(5);
+
+        cache.onTasksCreated(new TasksCreatedEvent(99L, 1));
+        cache.get(1L, loader(10L, 11L, 12L));
+        assertThat(loads).hasValue(5);
+        assertThat(count("instructor.report.cache.evictions", "cause", "invalidated")).isEqualTo(3);
+    }
+
+    @Test
+    void onCourseStatsRebuilt_shouldInvalidateInstructorsOfRepairedCourses() {
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(20L));
+
+        cache.onCourseStatsRebuilt(new CourseStatsRebuiltEvent(List.of(10L)));
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(20L));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_shouldNotCacheReportLoadedWhileAnInvalidationHappened() {
+        cache.get(1L, () -> {
+            cache.onCourseCreated(new CourseCreatedEvent(11L, 1L));
+            return loader(10L).get();
+        });
+        cache.get(1L, loader(10L, 11L));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldNotCacheReportWhoseCourseWasInvalidatedDuringTheLoad() {
+        cache.get(1L, () -> {
+            cache.onTasksCreated(new TasksCreatedEvent(10L, 1));
+            return loader(10L).get();
+        });
+        cache.get(1L, loader(10L));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldCacheReportWhenOnlyOtherInstructorsWereInvalidatedDuringTheLoad() {
+        cache.get(1L, () -> {
+            cache.onTasksCreated(new TasksCreatedEvent(20L, 1));
+            cache.onCourseCreated(new CourseCreatedEvent(21L, 2L));
+            return loader(10L).get();
+        });
+        cache.get(1L, loader(10L));
+
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.course.Course;
+import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
+import br.com.alura.AluraFake.course.Status;
+import br.com.alura.AluraFake.task.Type;
+import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({InstructorReportService.class, InstructorReportCache.class, UserLookupCache.class, SimpleMeterRegistry.class})
+class InstructorReportQueryCountTest {
+
+    @Autowired
+    private InstructorReportService instructorReportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseStatsRepository courseStatsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 40})
+    void getInstructorCoursesReport_shouldUseConstantStatementCount(int courses) {
+        User instructor = userRepository.save(new User("Paulo", "paulo" + courses + "@alura.com.br", Role.INSTRUCTOR));
+        for (int i = 0; i < courses; i++) {
+            Course course = courseRepository.save(new Course("Curso " + i, "Descrição " + i, instructor));
+            if (i % 2 == 0) {
+                course.setStatus(Status.PUBLISHED);
+                course.setPublishedAt(LocalDateTime.now());
+            }
+            courseStatsRepository.recordTasks(course.getId(), List.of(Type.OPEN_TEXT, Type.SINGLE_CHOICE));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        InstructorCoursesReportResponse report = instructorReportService.getInstructorCoursesReport(instructor.getId());
+
+        assertThat(report.getCourses()).hasSize(courses);
+        assertThat(report.getCourses()).allMatch(course -> course.getTaskCount() == 2L);
+        assertThat(report.getTotalPublishedCourses()).isEqualTo((courses + 1) / 2);
+        // instructor lookup, courses with task counts
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -1,24 +1,32 @@
 package br.com.alura.AluraFake.user;
 
-import br.com.alura.AluraFake.course.Course;
 import br.com.alura.AluraFake.course.CourseRepository;
+import br.com.alura.AluraFake.course.CourseStats;
+import br.com.alura.AluraFake.course.CourseStatsRepository;
 import br.com.alura.AluraFake.course.Status;
-import br.com.alura.AluraFake.task.TaskRepository;
+import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
 import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(classes = InstructorReportService.class)
@@ -28,13 +36,22 @@ public class InstructorReportServiceTest {
     private InstructorReportService instructorReportService;
 
     @MockBean
-    private UserRepository userRepository;
+    private UserLookupCache userLookups;
 
     @MockBean
     private CourseRepository courseRepository;
 
     @MockBean
-    private TaskRepository taskRepository;
+    private CourseStatsRepository courseStatsRepository;
+
+    @MockBean
+    private InstructorReportCache reportCache;
+
+    @BeforeEach
+    void loadThroughCache() {
+        when(reportCache.get(anyLong(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<InstructorCoursesReportResponse>>getArgument(1).get());
+    }
 
     @Test
     void getInstructorCoursesReport_shouldReturnReportWhenInstructorExistsAndHasCourses() {
@@ -42,19 +59,12 @@ public class InstructorReportServiceTest {
 
         User instructor = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
 
-        Course course1 = new Course("Java", "Curso de Java", instructor);
-        Course course2 = new Course("Spring", "Curso de Spring", instructor);
-
-        course1.setStatus(Status.PUBLISHED);
-        course1.setPublishedAt(LocalDateTime.now());
-        course2.setStatus(Status.BUILDING);
-
-        List<Course> courses = Arrays.asList(course1, course2);
+        List<InstructorCourseDTO> courses = Arrays.asList(
+                new InstructorCourseDTO(10L, "Java", Status.PUBLISHED, LocalDateTime.now(), 5L),
+                new InstructorCourseDTO(11L, "Spring", Status.BUILDING, null, 3L));
 
-        when(userRepository.findById(instructorId)).thenReturn(Optional.of(instructor));
-        when(courseRepository.findByInstructor(instructor)).thenReturn(courses);
-        when(taskRepository.countByCourse(course1)).thenReturn(5L);
-        when(taskRepository.countByCourse(course2)).thenReturn(3L);
+        when(userLookups.findById(instructorId)).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorCourses(instructor.getId())).thenReturn(courses);
 
         InstructorCoursesReportResponse report = instructorReportService.getInstructorCoursesReport(instructorId);
 
@@ -74,7 +84,7 @@ public class InstructorReportServiceTest {
     void getInstructorCoursesReport_shouldThrow404WhenUserNotFound() {
 
         Long nonExistentId = 999L;
-        when(userRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(userLookups.findById(nonExistentId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> instructorReportService.getInstructorCoursesReport(nonExistentId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -87,7 +97,7 @@ public class InstructorReportServiceTest {
         Long studentId = 2L;
         User student = new User("João", "joao@email.com", Role.STUDENT);
 
-        when(userRepository.findById(studentId)).thenReturn(Optional.of(student));
+        when(userLookups.findById(studentId)).thenReturn(Optional.of(student));
 
         assertThatThrownBy(() -> instructorReportService.getInstructorCoursesReport(studentId))
                 .isInstanceOf(ResponseStatusException.class)
@@ -100,8 +110,8 @@ public class InstructorReportServiceTest {
         Long instructorId = 3L;
         User instructor = new User("Maria", "maria@alura.com.br", Role.INSTRUCTOR);
 
-        when(userRepository.findById(instructorId)).thenReturn(Optional.of(instructor));
-        when(courseRepository.findByInstructor(instructor)).thenReturn(Arrays.asList());
+        when(userLookups.findById(instructorId)).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorCourses(instructor.getId())).thenReturn(Arrays.asList());
 
         InstructorCoursesReportResponse report = instructorReportService.getInstructorCoursesReport(instructorId);
 
@@ -114,26 +124,56 @@ public class InstructorReportServiceTest {
         Long instructorId = 4L;
         User instructor = new User("Carlos", "carlos@alura.com.br", Role.INSTRUCTOR);
 
-        Course published1 = new Course("Course 1", "Desc 1", instructor);
-        published1.setStatus(Status.PUBLISHED);
-        published1.setPublishedAt(LocalDateTime.now());
+        List<InstructorCourseDTO> courses = Arrays.asList(
+                new InstructorCourseDTO(1L, "Course 1", Status.PUBLISHED, LocalDateTime.now(), 2L),
+                new InstructorCourseDTO(2L, "Course 2", Status.PUBLISHED, LocalDateTime.now(), 2L),
+                new InstructorCourseDTO(3L, "Course 3", Status.BUILDING, null, 2L));
 
-        Course published2 = new Course("Course 2", "Desc 2", instructor);
-        published2.setStatus(Status.PUBLISHED);
-        published2.setPublishedAt(LocalDateTime.now());
-
-        Course building = new Course("Course 3", "Desc 3", instructor);
-        building.setStatus(Status.BUILDING);
-
-        List<Course> courses = Arrays.asList(published1, published2, building);
-
-        when(userRepository.findById(instructorId)).thenReturn(Optional.of(instructor));
-        when(courseRepository.findByInstructor(instructor)).thenReturn(courses);
-        when(taskRepository.countByCourse(any(Course.class))).thenReturn(2L);
+        when(userLookups.findById(instructorId)).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorCourses(instructor.getId())).thenReturn(courses);
 
         InstructorCoursesReportResponse report = instructorReportService.getInstructorCoursesReport(instructorId);
 
         assertThat(report.getTotalPublishedCourses()).isEqualTo(2);
         assertThat(report.getCourses()).hasSize(3);
     }
+
+    @Test
+    void getInstructorCoursesReport_shouldFanOutTaskCountsInChunks() {
+        Long instructorId = 5L;
+        User instructor = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
+        InstructorReportService fanOutService = new InstructorReportService(userLookups, courseRepository,
+                courseStatsRepository, reportCache, true, 2, 1, Duration.ofSeconds(5));
+
+        when(userLookups.findById(instructorId)).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorCourseList(instructor.getId())).thenReturn(List.of(
+                new InstructorCourseDTO(10L, "Java", Status.PUBLISHED, LocalDateTime.now(), 0L),
+                new InstructorCourseDTO(11L, "Spring", Status.BUILDING, null, 0L)));
+        when(courseRepository.countByInstructorAndStatus(instructor.getId(), Status.PUBLISHED)).thenReturn(1L);
+        when(courseStatsRepository.findAllById(List.of(10L))).thenReturn(List.of(new CourseStats(10L, 5, 5, 5, 0, 0)));
+        when(courseStatsRepository.findAllById(List.of(11L))).thenReturn(List.of());
+
+        InstructorCoursesReportResponse report = fanOutService.getInstructorCoursesReport(instructorId);
+
+        assertThat(report.getTotalPublishedCourses()).isEqualTo(1);
+        assertThat(report.getCourses()).extracting(InstructorCourseDTO::getTaskCount).containsExactly(5L, 0L);
+        verify(courseStatsRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void getInstructorCoursesReport_shouldFailTheFanOutWhenASubQueryFails() {
+        Long instructorId = 6L;
+        User instructor = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR);
+        InstructorReportService fanOutService = new InstructorReportService(userLookups, courseRepository,
+                courseStatsRepository, reportCache, true, 2, 1, Duration.ofSeconds(5));
+
+        when(userLookups.findById(instructorId)).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorCourseList(instructor.getId())).thenReturn(List.of(
+                new InstructorCourseDTO(10L, "Java", Status.PUBLISHED, LocalDateTime.now(), 0L)));
+        when(courseStatsRepository.findAllById(anyIterable())).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThatThrownBy(() -> fanOutService.getInstructorCoursesReport(instructorId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("connection lost");
+    }
 }
@@ -4,6 +4,8 @@ import br.com.alura.AluraFake.course.Status;
 import br.com.alura.AluraFake.user.dto.InstructorCourseDTO;
 import br.com.alura.AluraFake.user.dto.InstructorCoursesReportResponse;
 import br.com.alura.AluraFake.user.dto.NewUserDTO;
+import br.com.alura.AluraFake.user.dto.UserListItemDTO;
+import br.com.alura.AluraFake.user.dto.UserPageResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,11 +14,20 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.function.ThrowingConsumer;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,7 +39,10 @@ class UserControllerTest {
     private MockMvc mockMvc;
 
     @MockBean
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @MockBean
+    private UserProvisioningService provisioningService;
 
     @MockBean
     private InstructorReportService instructorReportService;
@@ -73,7 +87,7 @@ class UserControllerTest {
         newUserDTO.setName("Caio Bugorin");
         newUserDTO.setRole(Role.STUDENT);
 
-        when(userRepository.existsByEmail(newUserDTO.getEmail())).thenReturn(true);
+        when(userService.register(any())).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/user/new")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -90,7 +104,7 @@ class UserControllerTest {
         newUserDTO.setName("Caio Bugorin");
         newUserDTO.setRole(Role.STUDENT);
 
-        when(userRepository.existsByEmail(newUserDTO.getEmail())).thenReturn(false);
+        when(userService.register(any())).thenReturn(Optional.of(newUserDTO.toModel()));
 
         mockMvc.perform(post("/user/new")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -99,18 +113,59 @@ class UserControllerTest {
     }
 
     @Test
-    void listAllUsers__should_list_all_users() throws Exception {
-        User user1 = new User("User 1", "user1@test.com",Role.STUDENT);
-        User user2 = new User("User 2", "user2@test.com",Role.STUDENT);
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+    void provisionUsers__should_stream_per_row_results_for_csv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(2);
+            output.write("{\"line\":2,\"status\":\"CREATED\",\"email\":\"caio@alura.com.br\"}\n".getBytes());
+            return null;
+        }).when(provisioningService).provision(eq(UserProvisioningService.Format.CSV), any(), any());
+
+        MvcResult result = mockMvc.perform(post("/user/bulk")
+                        .contentType("text/csv")
+                        .content("name,email,role\nCaio,caio@alura.com.br,STUDENT\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"line\":2,\"status\":\"CREATED\",\"email\":\"caio@alura.com.br\"}\n"));
+    }
 
-        mockMvc.perform(get("/user/all")
+    @Test
+    void listAllUsers__should_list_all_users() throws Exception {
+        doAnswer(invocation -> {
+            ThrowingConsumer<UserListItemDTO> action = invocation.getArgument(1);
+            action.accept(new UserListItemDTO(1L, "User 1", "user1@test.com", Role.STUDENT));
+            action.accept(new UserListItemDTO(2L, "User 2", "user2@test.com", Role.STUDENT));
+            return null;
+        }).when(userService).forEachUser(isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/user/all")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name").value("User 1"))
                 .andExpect(jsonPath("$[1].name").value("User 2"));
     }
 
+    @Test
+    void listAllUsers__should_return_filtered_page_when_size_is_given() throws Exception {
+        when(userService.listUsers(Role.INSTRUCTOR, null, 1)).thenReturn(new UserPageResponse(
+                List.of(new UserListItemDTO(3L, "Paulo", "paulo@alura.com.br", Role.INSTRUCTOR)), "Mw"));
+
+        mockMvc.perform(get("/user/all")
+                        .param("role", "INSTRUCTOR")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].email").value("paulo@alura.com.br"))
+                .andExpect(jsonPath("$.users[0].role").value("INSTRUCTOR"))
+                .andExpect(jsonPath("$.nextCursor").value("Mw"));
+    }
+
 
     @Test
     void getInstructorCoursesReport_shouldReturnReportWhenInstructorExists() throws Exception {
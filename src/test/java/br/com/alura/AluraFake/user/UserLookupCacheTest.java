@@ -0,0 +1,65 @@
+package br.com.alura.AluraFake.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserLookupCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserLookupCache cache = new UserLookupCache(userRepository, meterRegistry, 2);
+
+    private User user(long id, String name, String email) {
+        User user = new User(name, email, Role.INSTRUCTOR);
+        ReflectionTestUtils.setField(user, "id", id);
+        return user;
+    }
+
+    @Test
+    void findByEmail_shouldLoadOnceAndServeIdAndEmailLookupsFromMemory() {
+        User paulo = user(1L, "Paulo", "paulo@alura.com.br");
+        when(userRepository.findByEmail("paulo@alura.com.br")).thenReturn(Optional.of(paulo));
+
+        cache.findByEmail("paulo@alura.com.br");
+        assertThat(cache.findByEmail("Paulo@Alura.com.br")).containsSame(paulo);
+        assertThat(cache.findById(1L)).containsSame(paulo);
+
+        verify(userRepository, times(1)).findByEmail(any());
+        verify(userRepository, never()).findById(any());
+        assertThat(meterRegistry.get("user.lookup.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("user.lookup.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void findByEmail_shouldNotCacheMissingUsers() {
+        when(userRepository.findByEmail("novo@alura.com.br")).thenReturn(Optional.empty());
+
+        assertThat(cache.findByEmail("novo@alura.com.br")).isEmpty();
+        cache.recordCreated(user(3L, "Novo", "novo@alura.com.br"));
+
+        assertThat(cache.findByEmail("novo@alura.com.br")).map(User::getName).contains("Novo");
+        verify(userRepository, times(1)).findByEmail(any());
+    }
+
+    @Test
+    void findById_shouldEvictLeastRecentlyUsedUserAndItsEmail() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "Paulo", "paulo@alura.com.br")));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L, "Maria", "maria@alura.com.br")));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user(3L, "Carlos", "carlos@alura.com.br")));
+        when(userRepository.findByEmail("paulo@alura.com.br")).thenReturn(Optional.of(user(1L, "Paulo", "paulo@alura.com.br")));
+
+        cache.findById(1L);
+        cache.findById(2L);
+        cache.findById(3L);
+        cache.findByEmail("paulo@alura.com.br");
+
+        verify(userRepository).findByEmail("paulo@alura.com.br");
+        assertThat(meterRegistry.get("user.lookup.cache.evictions").counter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.alura.AluraFake.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {UserProvisioningService.class, UserEmailIndex.class, SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+class UserProvisioningServiceTest {
+
+    @Autowired
+    private UserProvisioningService provisioningService;
+
+    @Autowired
+    private UserEmailIndex emailIndex;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void provision_shouldCreateValidCsvRowsAndRejectInvalidOnesPerLine() throws Exception {
+        when(userRepository.findEmailsIn(anyCollection())).thenReturn(List.of("paulo@alura.com.br"));
+
+        String input = """
+                name,email,role
+                "Bugorin, Caio",caio@alura.com.br,STUDENT
+                Maria,maria,STUDENT
+                Caio Repetido,caio@alura.com.br,STUDENT
+
+                Paulo,paulo@alura.com.br,INSTRUCTOR
+                Ana,ana@alura.com.br,ADMIN
+                Sergio,sergio@alura.com.br,INSTRUCTOR
+                """;
+
+        String[] results = provision(UserProvisioningService.Format.CSV, input);
+
+        assertThat(results).hasSize(6);
+        assertThat(results[0]).contains("\"line\":2", "\"status\":\"CREATED\"", "caio@alura.com.br");
+        assertThat(results[1]).contains("\"line\":3", "REJECTED", "email:");
+        assertThat(results[2]).contains("\"line\":4", "REJECTED", UserProvisioningService.EMAIL_REPEATED);
+        assertThat(results[3]).contains("\"line\":6", "REJECTED", UserProvisioningService.EMAIL_TAKEN);
+        assertThat(results[4]).contains("\"line\":7", "REJECTED", "Malformed user record");
+        assertThat(results[5]).contains("\"line\":8", "\"status\":\"CREATED\"");
+        verify(jdbcTemplate).batchUpdate(eq(UserProvisioningService.INSERT_USER),
+                argThat((Collection<User> users) -> users.size() == 2), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(emailIndex.isTaken("sergio@alura.com.br")).isTrue();
+        assertThat(emailIndex.isTaken("paulo@alura.com.br")).isTrue();
+    }
+
+    @Test
+    void provision_shouldInsertOneBatchPerChunk() throws Exception {
+        StringBuilder input = new StringBuilder();
+        int records = UserProvisioningService.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < records; i++) {
+            input.append("{\"name\":\"Aluno ").append(i).append("\",\"email\":\"aluno").append(i)
+                    .append("@escola.com.br\",\"role\":\"STUDENT\"}\n");
+        }
+
+        String[] results = provision(UserProvisioningService.Format.NDJSON, input.toString());
+
+        assertThat(results).hasSize(records).allMatch(result -> result.contains("CREATED"));
+        verify(userRepository, times(3)).findEmailsIn(anyCollection());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void provision_shouldLeaveEmailsDifferingOnlyByCaseOrAccentToTheEmailConstraint() throws Exception {
+        when(userRepository.findEmailsIn(anyCollection())).thenReturn(List.of("Paulo@alura.com.br"));
+        doAnswer(invocation -> {
+            Collection<User> users = invocation.getArgument(1);
+            if (users.stream().anyMatch(user -> user.getEmail().equals("JOAO@alura.com.br"))) {
+                throw new DuplicateKeyException("Duplicate entry for key 'UC_Email'");
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+
+        String input = """
+                {"name":"João","email":"joão@alura.com.br","role":"STUDENT"}
+                {"name":"Joao","email":"JOAO@alura.com.br","role":"STUDENT"}
+                {"name":"Paulo","email":"paulo@alura.com.br","role":"STUDENT"}
+                {"name":"Ana","email":"ana@alura.com.br","role":"STUDENT"}
+                """;
+
+        String[] results = provision(UserProvisioningService.Format.NDJSON, input);
+
+        assertThat(results).hasSize(4);
+        assertThat(results[0]).contains("\"line\":1", "\"status\":\"CREATED\"");
+        assertThat(results[1]).contains("\"line\":2", "REJECTED", UserProvisioningService.EMAIL_TAKEN);
+        assertThat(results[2]).contains("\"line\":3", "\"status\":\"CREATED\"");
+        assertThat(results[3]).contains("\"line\":4", "\"status\":\"CREATED\"");
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void provision_shouldRejectOnlyTheRowsTheEmailConstraintKeepsRejecting() throws Exception {
+        doAnswer(invocation -> {
+            Collection<User> users = invocation.getArgument(1);
+            if (users.stream().anyMatch(user -> user.getEmail().equals("sergio@alura.com.br"))) {
+                throw new DuplicateKeyException("Duplicate entry for key 'UC_Email'");
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+
+        String input = """
+                {"name":"Caio","email":"caio@alura.com.br","role":"STUDENT"}
+                {"name":"Sergio","email":"sergio@alura.com.br","role":"STUDENT"}
+                {"name":"Ana","email":"ana@alura.com.br","role":"STUDENT"}
+                """;
+
+        String[] results = provision(UserProvisioningService.Format.NDJSON, input);
+
+        assertThat(results).hasSize(3);
+        assertThat(results[0]).contains("\"line\":1", "\"status\":\"CREATED\"");
+        assertThat(results[1]).contains("\"line\":2", "REJECTED", UserProvisioningService.EMAIL_TAKEN);
+        assertThat(results[2]).contains("\"line\":3", "\"status\":\"CREATED\"");
+    }
+
+    @Test
+    void provision_shouldRejectLinesLongerThanTheLimit() throws Exception {
+        String input = "name,email,role\n"
+                + "Caio," + "c".repeat(UserProvisioningService.MAX_LINE_LENGTH) + "@alura.com.br,STUDENT\n"
+                + "Ana,ana@alura.com.br,STUDENT\n";
+
+        String[] results = provision(UserProvisioningService.Format.CSV, input);
+
+        assertThat(results).hasSize(2);
+        assertThat(results[0]).contains("\"line\":2", "REJECTED", "exceeds");
+        assertThat(results[1]).contains("\"line\":3", "\"status\":\"CREATED\"");
+    }
+
+    @Test
+    void splitCsv_shouldHonourQuotedFields() {
+        assertThat(UserProvisioningService.splitCsv("\"Silva, \"\"Zé\"\"\",ze@alura.com.br,"))
+                .containsExactly("Silva, \"Zé\"", "ze@alura.com.br", "");
+    }
+
+    private String[] provision(UserProvisioningService.Format format, String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        provisioningService.provision(format, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8).split("\n");
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.user.dto.NewUserDTO;
+import br.com.alura.AluraFake.user.dto.UserListItemDTO;
+import br.com.alura.AluraFake.user.dto.UserPageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {UserService.class, UserEmailIndex.class, SimpleMeterRegistry.class})
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserLookupCache userLookups;
+
+    @Test
+    void register_shouldInsertWithoutCheckingFirst() {
+        User user = userService.register(newStudent("caio@alura.com.br")).orElseThrow();
+
+        verify(userRepository).save(user);
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userLookups).recordCreated(user);
+    }
+
+    @Test
+    void register_shouldTranslateEmailViolationAndRejectRepeatsFromIndex() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "Duplicate entry 'paulo@alura.com.br' for key 'User.UC_Email'"));
+
+        assertThat(userService.register(newStudent("paulo@alura.com.br"))).isEmpty();
+        assertThat(userService.register(newStudent("Paulo@Alura.com.br"))).isEmpty();
+
+        verify(userRepository, times(1)).save(any(User.class));
+        verify(userLookups, never()).recordCreated(any());
+    }
+
+    @Test
+    void register_shouldWaitForAnInsertInFlightInsteadOfRacingIt() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            commit.await();
+            return invocation.getArgument(0);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<User>> first = executor.submit(() -> userService.register(newStudent("ana@alura.com.br")));
+            saving.await();
+            Future<Optional<User>> second = executor.submit(() -> userService.register(newStudent("ANA@alura.com.br")));
+            Thread.sleep(50);
+            commit.countDown();
+
+            assertThat(first.get()).isPresent();
+            assertThat(second.get()).isEmpty();
+        }
+        verify(userRepository, times(1)).save(any(User.class));
+    }
+
+    @Test
+    void register_shouldInsertItselfWhenTheInsertInFlightFailedForAnotherReason() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        when(userRepository.save(any(User.class)))
+                .thenAnswer(invocation -> {
+                    saving.countDown();
+                    fail.await();
+                    throw new DataIntegrityViolationException("Data too long for column 'name' at row 1");
+                })
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<User>> first = executor.submit(() -> userService.register(newStudent("bia@alura.com.br")));
+            saving.await();
+            Future<Optional<User>> second = executor.submit(() -> userService.register(newStudent("bia@alura.com.br")));
+            Thread.sleep(50);
+            fail.countDown();
+
+            assertThatThrownBy(first::get).hasCauseInstanceOf(DataIntegrityViolationException.class);
+            assertThat(second.get()).isPresent();
+        }
+        verify(userRepository, times(2)).save(any(User.class));
+    }
+
+    @Test
+    void register_shouldRethrowOtherIntegrityViolations() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "Data too long for column 'name' at row 1"));
+
+        assertThatThrownBy(() -> userService.register(newStudent("maria@alura.com.br")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void listUsers_shouldPageByIdAndFilterByRole() {
+        when(userRepository.findListItemsByRoleAfter(eq(Role.INSTRUCTOR), eq(0L), any(Limit.class))).thenReturn(List.of(
+                new UserListItemDTO(2L, "Paulo", "paulo@alura.com.br", Role.INSTRUCTOR),
+                new UserListItemDTO(5L, "Maria", "maria@alura.com.br", Role.INSTRUCTOR)));
+
+        UserPageResponse first = userService.listUsers(Role.INSTRUCTOR, null, 1);
+
+        assertThat(first.getUsers()).extracting(UserListItemDTO::getId).containsExactly(2L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        when(userRepository.findListItemsByRoleAfter(eq(Role.INSTRUCTOR), eq(2L), any(Limit.class))).thenReturn(List.of(
+                new UserListItemDTO(5L, "Maria", "maria@alura.com.br", Role.INSTRUCTOR)));
+
+        UserPageResponse last = userService.listUsers(Role.INSTRUCTOR, first.getNextCursor(), 1);
+
+        assertThat(last.getUsers()).extracting(UserListItemDTO::getId).containsExactly(5L);
+        assertThat(last.getNextCursor()).isNull();
+        verify(userRepository, never()).findListItemsAfter(anyLong(), any());
+    }
+
+    private static NewUserDTO newStudent(String email) {
+        NewUserDTO newUser = new NewUserDTO();
+        newUser.setName("Caio Bugorin");
+        newUser.setEmail(email);
+        newUser.setRole(Role.STUDENT);
+        return newUser;
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.alura.AluraFake.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLineReaderTest {
+
+    @Test
+    void next_shouldSplitOnEveryLineTerminator() throws IOException {
+        assertThat(lines("a\nb\r\nc\rd", 10)).containsExactly("a", "b", "c", "d");
+        assertThat(lines("a\n\nb\n", 10)).containsExactly("a", "", "b");
+        assertThat(lines("", 10)).isEmpty();
+    }
+
+    @Test
+    void next_shouldSkipTheRestOfALineLongerThanTheLimit() throws IOException {
+        String longLine = "x".repeat(20_000);
+
+        assertThat(lines("ok\n" + longLine + "\nafter", 16)).containsExactly("ok", null, "after");
+    }
+
+    @Test
+    void next_shouldAcceptALineOfExactlyTheLimit() throws IOException {
+        assertThat(lines("abcd\nabcde", 4)).containsExactly("abcd", null);
+    }
+
+    private List<String> lines(String input, int maxLength) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader(input), maxLength);
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) {
+            lines.add(reader.line());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollationKeyTest {
+
+    @Test
+    void of_shouldIgnoreCaseAccentsAndTrailingSpaces() {
+        assertThat(CollationKey.of("O que é Java?  ")).isEqualTo(CollationKey.of("o que e JAVA?"));
+        assertThat(CollationKey.of("joão@alura.com.br")).isEqualTo(CollationKey.of("JOAO@alura.com.br"));
+    }
+
+    @Test
+    void of_shouldKeepLeadingSpacesAndPunctuation() {
+        assertThat(CollationKey.of(" Java")).isNotEqualTo(CollationKey.of("Java"));
+        assertThat(CollationKey.of("Java?")).isNotEqualTo(CollationKey.of("Java"));
+    }
+}
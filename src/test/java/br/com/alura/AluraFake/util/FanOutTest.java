@@ -0,0 +1,102 @@
+package br.com.alura.AluraFake.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FanOutTest {
+
+    @Test
+    void join_shouldCancelSiblingsOnFirstFailure() {
+        Future<?> sibling;
+        try (FanOut scope = new FanOut(new Semaphore(4), Duration.ofSeconds(30))) {
+            sibling = scope.fork(() -> {
+                Thread.sleep(30_000);
+                return null;
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(sibling.isCancelled()).isTrue();
+    }
+
+    @Test
+    void get_shouldGiveUpAtTheDeadline() {
+        try (FanOut scope = new FanOut(new Semaphore(4), Duration.ofMillis(100))) {
+            Future<Object> slow = scope.fork(() -> {
+                Thread.sleep(30_000);
+                return null;
+            });
+
+            assertThatThrownBy(() -> scope.get(slow)).isInstanceOf(TimeoutException.class);
+            assertThat(slow.isCancelled()).isTrue();
+        }
+    }
+
+    @Test
+    void fork_shouldNotRunMoreTasksThanPermits() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (FanOut scope = new FanOut(new Semaphore(2), Duration.ofSeconds(30))) {
+            for (int i = 0; i < 8; i++) {
+                scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+            scope.join();
+        }
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    void close_shouldNotLeakPermitsFromCancelledQueuedTasks() throws Exception {
+        Semaphore permits = new Semaphore(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (FanOut scope = new FanOut(permits, Duration.ofMillis(200))) {
+            Future<Object> running = scope.fork(() -> {
+                started.countDown();
+                Thread.sleep(30_000);
+                return null;
+            });
+            for (int i = 0; i < 4; i++) {
+                scope.fork(() -> null);
+            }
+            started.await();
+
+            assertThatThrownBy(() -> scope.get(running)).isInstanceOf(TimeoutException.class);
+        }
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldNotReportCancellationAsTheFailure() {
+        try (FanOut scope = new FanOut(new Semaphore(4), Duration.ofMillis(100))) {
+            Future<Object> slow = scope.fork(() -> {
+                Thread.sleep(30_000);
+                return null;
+            });
+            Future<Object> other = scope.fork(() -> {
+                Thread.sleep(30_000);
+                return null;
+            });
+
+            assertThatThrownBy(() -> scope.get(slow)).isInstanceOf(TimeoutException.class);
+            assertThatThrownBy(() -> scope.get(other))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(CancellationException.class);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.alura.AluraFake.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.function.ThrowingConsumer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonArrayStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_shouldWriteEveryElementAsOneArray() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        JsonArrayStream.<String>of(objectMapper, action -> List.of("a", "b").forEach(action)).writeTo(output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    void of_shouldLeaveTheArrayOpenWhenTheSourceFails() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> JsonArrayStream.<String>of(objectMapper, action -> {
+            action.accept("a");
+            throw new IllegalStateException("connection lost");
+        }).writeTo(output)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("[\"a\"");
+    }
+}